@@ -2,14 +2,40 @@ package com.payroll;
 
 import com.payroll.models.Developer;
 import com.payroll.models.Employee;
+import com.payroll.models.EmployeeType;
 import com.payroll.models.Leave;
+import com.payroll.models.LeaveStatus;
+import com.payroll.models.LeaveType;
 import com.payroll.models.Manager;
+import com.payroll.models.PayrollTotals;
+import com.payroll.models.PayslipDiff;
+import com.payroll.models.Salary;
+import com.payroll.services.AllowanceService;
+import com.payroll.services.CalendarService;
+import com.payroll.services.EmployeeFilter;
 import com.payroll.services.EmployeeService;
+import com.payroll.services.ExportFormat;
+import com.payroll.services.ExportService;
+import com.payroll.services.ImportResult;
 import com.payroll.services.LeaveService;
 import com.payroll.services.PayrollService;
+import com.payroll.services.PayrollRun;
+import com.payroll.services.PayrollRunManager;
+import com.payroll.services.PayrollScenario;
+import com.payroll.services.SalaryFilter;
+import com.payroll.services.SimulationResult;
+import com.payroll.services.SimulationService;
+import com.payroll.services.TaxService;
+import com.payroll.utils.Page;
 import com.payroll.utils.PayrollConstants;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -21,6 +47,12 @@ public class Main {
     private static final EmployeeService employeeService = new EmployeeService();
     private static final LeaveService leaveService = new LeaveService();
     private static final PayrollService payrollService = new PayrollService();
+    private static final TaxService taxService = new TaxService();
+    private static final AllowanceService allowanceService = new AllowanceService();
+    private static final CalendarService calendarService = new CalendarService();
+    private static final ExportService exportService = new ExportService(payrollService, employeeService);
+    private static final SimulationService simulationService = new SimulationService();
+    private static final PayrollRunManager payrollRunManager = new PayrollRunManager(payrollService, employeeService);
 
     // Flag to indicate if we're running in test mode
     private static boolean isTestMode = false;
@@ -36,6 +68,14 @@ public class Main {
             runSystemTest();
             // Exit after tests in test mode
             System.exit(0);
+        } else if (args.length > 1 && args[0].equals("--import")) {
+            // Bulk import employees from the given CSV file and exit
+            boolean success = importEmployees(args[1]);
+            System.exit(success ? 0 : 1);
+        } else if (args.length > 2 && args[0].equals("--backfill")) {
+            // Process salaries for a range of months and exit
+            backfillSalaries(YearMonth.parse(args[1]), YearMonth.parse(args[2]));
+            System.exit(0);
         } else {
             // Normal operation
             displayMenu();
@@ -47,9 +87,14 @@ public class Main {
      */
     private static void loadData() {
         System.out.println("Loading data...");
+        taxService.loadTaxTables();
+        allowanceService.loadAllowanceRules();
+        calendarService.loadHolidays();
         employeeService.loadEmployees();
         leaveService.loadLeaves();
         payrollService.loadSalaries();
+        payrollService.rebuildRollups(employeeService);
+        payrollRunManager.recoverRuns();
         System.out.println("Data loaded successfully!");
     }
     
@@ -91,24 +136,24 @@ public class Main {
         
         // Display all employees
         System.out.println("\nAll Employees:");
-        employeeService.getAllEmployees().forEach(System.out::println);
+        employeeService.streamEmployees().forEach(System.out::println);
         
         // Apply for leave
         LocalDate leaveStart = LocalDate.now().plusDays(10);
         LocalDate leaveEnd = leaveStart.plusDays(3);
-        Leave leave = new Leave(developer.getId(), leaveStart, leaveEnd, "SICK", "Medical appointment");
+        Leave leave = new Leave(developer.getId(), leaveStart, leaveEnd, LeaveType.SICK, "Medical appointment", LeaveStatus.PENDING);
         leaveService.applyLeave(leave);
         System.out.println("\nApplied leave: " + leave);
         
         // Approve the leave
-        leaveService.approveLeave(developer.getId(), leaveStart);
+        leaveService.approveLeave(developer.getId(), leaveStart, employeeService.getLeaveBalanceLedger());
         System.out.println("Approved leave for " + developer.getName());
         
         // Process salaries
         int currentMonth = LocalDate.now().getMonthValue();
         int currentYear = LocalDate.now().getYear();
         System.out.println("\nProcessing salaries for " + currentMonth + "/" + currentYear);
-        payrollService.processSalaries(employeeService.getAllEmployees(), leaveService.getAllLeaves(), currentMonth, currentYear);
+        payrollService.processSalaries(employeeService.getEmployees(), leaveService.getLeaveDayIndex(), currentMonth, currentYear);
         
         // View salary details
         System.out.println("\nSalary details for " + developer.getName() + ":");
@@ -145,6 +190,8 @@ public class Main {
             System.out.println("7. Process Salary");
             System.out.println("8. View Salary Details");
             System.out.println("9. Save Data");
+            System.out.println("10. Bulk Import Employees");
+            System.out.println("11. Payroll Reports");
             System.out.println("0. Exit");
             System.out.print("Enter your choice: ");
             
@@ -179,6 +226,12 @@ public class Main {
                     case 9:
                         saveData();
                         break;
+                    case 10:
+                        bulkImportEmployees();
+                        break;
+                    case 11:
+                        payrollReports();
+                        break;
                     case 0:
                         saveData();
                         System.out.println("Thank you for using the Employee Payroll Management System. Exiting...");
@@ -252,18 +305,83 @@ public class Main {
     }
 
     /**
-     * Displays all employees in the system
+     * Imports employees in bulk from a CSV file
+     */
+    private static void bulkImportEmployees() {
+        System.out.println("\n===== BULK IMPORT EMPLOYEES =====");
+        System.out.print("Enter CSV File Path: ");
+        String filePath = scanner.nextLine();
+        
+        importEmployees(filePath);
+    }
+
+    /**
+     * Runs a bulk import and reports the per-row errors
+     * 
+     * @param filePath Path of the CSV file to import
+     * @return true if every row was imported
+     */
+    private static boolean importEmployees(String filePath) {
+        ImportResult result = employeeService.importEmployees(filePath);
+        
+        for (String error : result.getErrors()) {
+            System.out.println(error);
+        }
+        System.out.println(result);
+        return result.isSuccessful();
+    }
+
+    /**
+     * Processes salaries for every month of a range and saves them
+     * 
+     * @param from First month to process
+     * @param to Last month to process (inclusive)
+     */
+    private static void backfillSalaries(YearMonth from, YearMonth to) {
+        int count = payrollService.processSalaryRange(employeeService.getEmployees(),
+                leaveService.getLeaveDayIndex(), from, to);
+        System.out.println("Processed " + count + " salary records for " + from + " to " + to + ".");
+    }
+
+    /**
+     * Displays all employees in the system, one page at a time
      */
     private static void viewAllEmployees() {
         System.out.println("\n===== ALL EMPLOYEES =====");
-        employeeService.getAllEmployees().forEach(System.out::println);
+        String cursor = null;
+        do {
+            Page<Employee> page = employeeService.getEmployeesPage(cursor, PayrollConstants.PAGE_SIZE);
+            page.getItems().forEach(System.out::println);
+            cursor = page.getNextCursor();
+            
+            if (cursor != null) {
+                System.out.print("Press Enter for more, or Q to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+            }
+        } while (cursor != null);
     }
 
     /**
-     * Searches for an employee by ID
+     * Searches for employees by ID or by attributes
      */
     private static void searchEmployee() {
         System.out.println("\n===== SEARCH EMPLOYEE =====");
+        System.out.println("1. By ID");
+        System.out.println("2. By Department, Type and Joining Date");
+        System.out.println("3. By Name");
+        System.out.print("Enter choice: ");
+        
+        int choice = Integer.parseInt(scanner.nextLine());
+        if (choice == 2) {
+            searchEmployeesByAttributes();
+            return;
+        } else if (choice == 3) {
+            searchEmployeesByName();
+            return;
+        }
+        
         System.out.print("Enter Employee ID: ");
         String id = scanner.nextLine();
         
@@ -275,6 +393,68 @@ public class Main {
         }
     }
 
+    /**
+     * Searches for employees by department, type and joining date range.
+     * Blank answers leave the criterion unrestricted.
+     */
+    private static void searchEmployeesByAttributes() {
+        EmployeeFilter filter = new EmployeeFilter();
+        
+        System.out.print("Enter Department (blank for any): ");
+        String department = scanner.nextLine().trim();
+        if (!department.isEmpty()) {
+            filter.withDepartment(department);
+        }
+        
+        System.out.print("Enter Employee Type (Manager/Developer, blank for any): ");
+        String employeeType = scanner.nextLine().trim();
+        if (!employeeType.isEmpty()) {
+            EmployeeType type = EmployeeType.parse(employeeType);
+            if (type == null) {
+                System.out.println("Invalid employee type: " + employeeType);
+                return;
+            }
+            filter.withEmployeeType(type);
+        }
+        
+        System.out.print("Joined From (YYYY-MM-DD, blank for any): ");
+        String from = scanner.nextLine().trim();
+        System.out.print("Joined To (YYYY-MM-DD, blank for any): ");
+        String to = scanner.nextLine().trim();
+        filter.joinedBetween(from.isEmpty() ? null : LocalDate.parse(from), to.isEmpty() ? null : LocalDate.parse(to));
+        
+        List<Employee> matches = employeeService.findEmployees(filter);
+        if (matches.isEmpty()) {
+            System.out.println("No matching employees found.");
+            return;
+        }
+        
+        matches.forEach(System.out::println);
+    }
+
+    /**
+     * Searches for employees by name prefix, falling back to typo-tolerant matching
+     */
+    private static void searchEmployeesByName() {
+        System.out.print("Enter Name: ");
+        String name = scanner.nextLine();
+        
+        List<Employee> matches = employeeService.findEmployeesByNamePrefix(name, PayrollConstants.NAME_SEARCH_LIMIT);
+        if (matches.isEmpty()) {
+            matches = employeeService.findEmployeesBySimilarName(name, PayrollConstants.NAME_SEARCH_LIMIT);
+            if (!matches.isEmpty()) {
+                System.out.println("No exact matches. Similar names:");
+            }
+        }
+        
+        if (matches.isEmpty()) {
+            System.out.println("No matching employees found.");
+            return;
+        }
+        
+        matches.forEach(System.out::println);
+    }
+
     /**
      * Updates an existing employee's information
      */
@@ -300,6 +480,7 @@ public class Main {
         System.out.print("Enter choice: ");
         
         int choice = Integer.parseInt(scanner.nextLine());
+        LocalDate effectiveDate = LocalDate.now();
         
         switch (choice) {
             case 1:
@@ -320,14 +501,20 @@ public class Main {
                 break;
             case 5:
                 System.out.print("Enter new Basic Salary: ");
-                employee.setBasicSalary(Double.parseDouble(scanner.nextLine()));
+                double basicSalary = Double.parseDouble(scanner.nextLine());
+                System.out.print("Enter Effective Date (YYYY-MM-DD, blank for today): ");
+                String date = scanner.nextLine().trim();
+                if (!date.isEmpty()) {
+                    effectiveDate = LocalDate.parse(date);
+                }
+                employee.setBasicSalary(basicSalary);
                 break;
             default:
                 System.out.println("Invalid choice!");
                 return;
         }
         
-        employeeService.updateEmployee(employee);
+        employeeService.updateEmployee(employee, effectiveDate);
         System.out.println("Employee updated successfully!");
     }
 
@@ -352,15 +539,19 @@ public class Main {
         LocalDate endDate = LocalDate.parse(scanner.nextLine());
         
         System.out.print("Enter Leave Type (SICK, CASUAL, ANNUAL): ");
-        String leaveType = scanner.nextLine();
+        LeaveType leaveType = LeaveType.parse(scanner.nextLine());
+        if (leaveType == null) {
+            System.out.println("Invalid leave type!");
+            return;
+        }
         
         System.out.print("Enter Reason: ");
         String reason = scanner.nextLine();
         
-        Leave leave = new Leave(employee.getId(), startDate, endDate, leaveType, reason);
-        leaveService.applyLeave(leave);
-        
-        System.out.println("Leave applied successfully!");
+        Leave leave = new Leave(employee.getId(), startDate, endDate, leaveType, reason, LeaveStatus.PENDING);
+        if (leaveService.applyLeave(leave)) {
+            System.out.println("Leave applied successfully!");
+        }
     }
 
     /**
@@ -392,8 +583,12 @@ public class Main {
         System.out.print("Enter Year: ");
         int year = Integer.parseInt(scanner.nextLine());
         
-        payrollService.processSalaries(employeeService.getAllEmployees(), leaveService.getAllLeaves(), month, year);
-        System.out.println("Salaries processed successfully!");
+        PayrollRun run = payrollRunManager.runPayroll(YearMonth.of(year, month), leaveService.getLeaveDayIndex());
+        if (run.isCompleted()) {
+            System.out.println("Salaries processed successfully!");
+        } else {
+            System.out.println("Payroll run stopped early: " + run);
+        }
     }
 
     /**
@@ -419,6 +614,256 @@ public class Main {
         payrollService.viewSalaryDetails(id, month, year);
     }
 
+    /**
+     * Displays the payroll reports menu and handles user input
+     */
+    private static void payrollReports() {
+        System.out.println("\n===== PAYROLL REPORTS =====");
+        System.out.println("1. Department Payroll Report");
+        System.out.println("2. Rebuild Payroll Rollups");
+        System.out.println("3. Year-End Statements");
+        System.out.println("4. Top Net Earners");
+        System.out.println("5. Gross Salary Percentiles by Department");
+        System.out.println("6. Export Salaries");
+        System.out.println("7. Month-over-Month Payroll Diff");
+        System.out.println("8. What-If Salary Simulation");
+        System.out.println("9. Payroll Run Status");
+        System.out.println("0. Back");
+        System.out.print("Enter choice: ");
+        
+        int choice = Integer.parseInt(scanner.nextLine());
+        
+        switch (choice) {
+            case 1:
+                departmentPayrollReport();
+                break;
+            case 2:
+                payrollService.rebuildRollups(employeeService);
+                System.out.println("Payroll rollups rebuilt from salary records.");
+                break;
+            case 3:
+                yearEndStatements();
+                break;
+            case 4:
+                topNetEarners();
+                break;
+            case 5:
+                grossPercentiles();
+                break;
+            case 6:
+                exportSalaries();
+                break;
+            case 7:
+                payrollDiff();
+                break;
+            case 8:
+                whatIfSimulation();
+                break;
+            case 9:
+                payrollRunStatus();
+                break;
+            case 0:
+                break;
+            default:
+                System.out.println("Invalid choice!");
+        }
+    }
+
+    /**
+     * Displays gross, tax and net totals by department for a month
+     */
+    private static void departmentPayrollReport() {
+        System.out.print("Enter Month (1-12): ");
+        int month = Integer.parseInt(scanner.nextLine());
+        
+        System.out.print("Enter Year: ");
+        int year = Integer.parseInt(scanner.nextLine());
+        
+        Map<String, PayrollTotals> report = payrollService.getDepartmentReport(month, year);
+        if (report.isEmpty()) {
+            System.out.println("No salaries processed for the specified month and year.");
+            return;
+        }
+        
+        System.out.println("\nDepartment totals for " + month + "/" + year + ":");
+        for (Map.Entry<String, PayrollTotals> entry : report.entrySet()) {
+            System.out.println(entry.getKey() + " | " + entry.getValue());
+        }
+    }
+
+    /**
+     * Displays year-to-date gross, tax and net for every employee paid in a year
+     */
+    private static void yearEndStatements() {
+        System.out.print("Enter Year: ");
+        int year = Integer.parseInt(scanner.nextLine());
+        
+        Map<String, PayrollTotals> statements = payrollService.getYearEndStatements(year);
+        if (statements.isEmpty()) {
+            System.out.println("No salaries processed for the specified year.");
+            return;
+        }
+        
+        System.out.println("\nYear-end statements for " + year + ":");
+        for (Map.Entry<String, PayrollTotals> entry : statements.entrySet()) {
+            System.out.println(entry.getKey() + " | " + entry.getValue());
+        }
+    }
+
+    /**
+     * Displays the highest net earners for a month
+     */
+    private static void topNetEarners() {
+        System.out.print("Enter Month (1-12): ");
+        int month = Integer.parseInt(scanner.nextLine());
+        
+        System.out.print("Enter Year: ");
+        int year = Integer.parseInt(scanner.nextLine());
+        
+        System.out.print("Enter Number of Employees: ");
+        int n = Integer.parseInt(scanner.nextLine());
+        
+        List<Salary> top = payrollService.getTopNetEarners(month, year, n);
+        if (top.isEmpty()) {
+            System.out.println("No salaries processed for the specified month and year.");
+            return;
+        }
+        
+        top.forEach(System.out::println);
+    }
+
+    /**
+     * Displays P50/P90/P99 gross salary by department for a month
+     */
+    private static void grossPercentiles() {
+        System.out.print("Enter Month (1-12): ");
+        int month = Integer.parseInt(scanner.nextLine());
+        
+        System.out.print("Enter Year: ");
+        int year = Integer.parseInt(scanner.nextLine());
+        
+        Map<String, double[]> percentiles = payrollService.getGrossPercentilesByDepartment(month, year, 0.5, 0.9, 0.99);
+        if (percentiles.isEmpty()) {
+            System.out.println("No salaries processed for the specified month and year.");
+            return;
+        }
+        
+        for (Map.Entry<String, double[]> entry : percentiles.entrySet()) {
+            double[] values = entry.getValue();
+            System.out.println(String.format("%s | P50: $%.2f | P90: $%.2f | P99: $%.2f",
+                    entry.getKey(), values[0], values[1], values[2]));
+        }
+    }
+
+    /**
+     * Exports salary records matching a filter to a CSV or JSON lines file
+     */
+    private static void exportSalaries() {
+        SalaryFilter filter = new SalaryFilter();
+        
+        System.out.print("From Period (YYYY-MM, blank for any): ");
+        String from = scanner.nextLine().trim();
+        System.out.print("To Period (YYYY-MM, blank for any): ");
+        String to = scanner.nextLine().trim();
+        filter.betweenPeriods(from.isEmpty() ? null : YearMonth.parse(from), to.isEmpty() ? null : YearMonth.parse(to));
+        
+        System.out.print("Enter Department (blank for any): ");
+        String department = scanner.nextLine().trim();
+        if (!department.isEmpty()) {
+            filter.withDepartment(department);
+        }
+        
+        System.out.print("Enter Employee IDs separated by commas (blank for all): ");
+        String ids = scanner.nextLine().trim();
+        if (!ids.isEmpty()) {
+            filter.withEmployeeIds(new HashSet<>(Arrays.asList(ids.split("\\s*,\\s*"))));
+        }
+        
+        System.out.print("Enter Format (CSV/JSON): ");
+        ExportFormat format = scanner.nextLine().trim().equalsIgnoreCase("JSON") ? ExportFormat.JSON_LINES : ExportFormat.CSV;
+        
+        System.out.print("Enter Output File Path: ");
+        String filePath = scanner.nextLine().trim();
+        
+        try {
+            long count = exportService.exportSalaries(filter, format, filePath);
+            System.out.println("Exported " + count + " salary records to " + filePath + ".");
+        } catch (IOException e) {
+            System.out.println("Error exporting salaries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Displays the employees whose net salary changed between two months
+     */
+    private static void payrollDiff() {
+        System.out.print("Enter Previous Period (YYYY-MM): ");
+        YearMonth previous = YearMonth.parse(scanner.nextLine().trim());
+        
+        System.out.print("Enter Current Period (YYYY-MM): ");
+        YearMonth current = YearMonth.parse(scanner.nextLine().trim());
+        
+        List<PayslipDiff> diffs = payrollService.diffPeriods(previous, current);
+        if (diffs.isEmpty()) {
+            System.out.println("No net salary changes between " + previous + " and " + current + ".");
+            return;
+        }
+        
+        diffs.forEach(System.out::println);
+        System.out.println(diffs.size() + " payslips changed.");
+    }
+
+    /**
+     * Simulates a basic salary change without touching processed salaries
+     */
+    private static void whatIfSimulation() {
+        System.out.print("Enter Month (1-12): ");
+        int month = Integer.parseInt(scanner.nextLine());
+        
+        System.out.print("Enter Year: ");
+        int year = Integer.parseInt(scanner.nextLine());
+        
+        System.out.print("Enter Department (blank for all): ");
+        String department = scanner.nextLine().trim();
+        
+        System.out.print("Enter Basic Salary Change (%): ");
+        double percent = Double.parseDouble(scanner.nextLine());
+        
+        double multiplier = 1 + percent / 100;
+        PayrollScenario scenario = new PayrollScenario(String.format("%+.1f%% basic%s", percent,
+                department.isEmpty() ? "" : " for " + department));
+        if (department.isEmpty()) {
+            scenario.withBasicMultiplier(multiplier);
+        } else {
+            scenario.withBasicMultiplier(department, multiplier);
+        }
+        
+        SimulationResult result = simulationService.simulate(employeeService.getEmployees(),
+                leaveService.getLeaveDayIndex(), month, year, List.of(scenario)).get(0);
+        
+        System.out.println("\nBaseline: " + result.getBaselineTotals());
+        System.out.println("Scenario: " + result.getScenarioTotals());
+        result.getEmployeeDiffs().forEach(System.out::println);
+        System.out.println(result);
+    }
+
+    /**
+     * Displays the progress of checkpointed payroll runs
+     */
+    private static void payrollRunStatus() {
+        if (payrollRunManager.getRuns().isEmpty()) {
+            System.out.println("No payroll runs recorded.");
+            return;
+        }
+        
+        for (PayrollRun run : payrollRunManager.getRuns()) {
+            System.out.println(run);
+            if (!run.isCompleted()) {
+                run.getPartitionSummaries().forEach(summary -> System.out.println("  " + summary));
+            }
+        }
+    }
+
     /**
      * Saves all data to files
      */
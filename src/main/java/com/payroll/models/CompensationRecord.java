@@ -0,0 +1,116 @@
+package com.payroll.models;
+
+import java.time.LocalDate;
+
+/**
+ * CompensationRecord holds the salary-relevant attributes of an employee
+ * from an effective date until the next record takes effect
+ */
+public class CompensationRecord {
+    private final String employeeId;
+    private final LocalDate effectiveDate;
+    private final double basicSalary;
+    private final int experienceYears;
+    private final int teamSize;
+    private final int managementLevel;
+
+    /**
+     * Constructor for CompensationRecord
+     * 
+     * @param employeeId ID of the employee
+     * @param effectiveDate Date the compensation takes effect
+     * @param basicSalary Basic salary amount
+     * @param experienceYears Years of experience (0 if not applicable)
+     * @param teamSize Team size (0 if not applicable)
+     * @param managementLevel Management level (0 if not applicable)
+     */
+    public CompensationRecord(String employeeId, LocalDate effectiveDate, double basicSalary,
+                              int experienceYears, int teamSize, int managementLevel) {
+        this.employeeId = employeeId;
+        this.effectiveDate = effectiveDate;
+        this.basicSalary = basicSalary;
+        this.experienceYears = experienceYears;
+        this.teamSize = teamSize;
+        this.managementLevel = managementLevel;
+    }
+
+    /**
+     * Check if another record holds the same compensation, ignoring the effective date
+     * 
+     * @param other The other record
+     * @return true if basic salary, experience, team size and level are equal
+     */
+    public boolean sameCompensationAs(CompensationRecord other) {
+        return other != null &&
+               Math.abs(basicSalary - other.basicSalary) < 0.005 &&
+               experienceYears == other.experienceYears &&
+               teamSize == other.teamSize &&
+               managementLevel == other.managementLevel;
+    }
+
+    /**
+     * Convert compensation record to CSV format for file storage
+     * 
+     * @return CSV formatted string
+     */
+    public String toCsv() {
+        return String.format("%s,%s,%.2f,%d,%d,%d",
+                employeeId,
+                effectiveDate,
+                basicSalary,
+                experienceYears,
+                teamSize,
+                managementLevel);
+    }
+
+    /**
+     * Create a CompensationRecord from CSV string
+     * 
+     * @param csv CSV formatted string
+     * @return CompensationRecord object
+     */
+    public static CompensationRecord fromCsv(String csv) {
+        String[] parts = csv.split(",");
+        return new CompensationRecord(
+                parts[0], // employeeId
+                LocalDate.parse(parts[1]), // effectiveDate
+                Double.parseDouble(parts[2]), // basicSalary
+                Integer.parseInt(parts[3]), // experienceYears
+                Integer.parseInt(parts[4]), // teamSize
+                Integer.parseInt(parts[5]) // managementLevel
+        );
+    }
+
+    /**
+     * Getters
+     */
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public double getBasicSalary() {
+        return basicSalary;
+    }
+
+    public int getExperienceYears() {
+        return experienceYears;
+    }
+
+    public int getTeamSize() {
+        return teamSize;
+    }
+
+    public int getManagementLevel() {
+        return managementLevel;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Compensation [Employee ID: %s, Effective: %s, Basic Salary: $%.2f, Experience: %d, Team Size: %d, Level: %d]",
+                employeeId, effectiveDate, basicSalary, experienceYears, teamSize, managementLevel);
+    }
+}
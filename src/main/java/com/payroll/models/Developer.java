@@ -1,5 +1,8 @@
 package com.payroll.models;
 
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.PayrollConstants;
+
 import java.time.LocalDate;
 
 /**
@@ -31,26 +34,36 @@ public class Developer extends Employee {
     }
 
     /**
-     * Calculate gross salary with developer-specific allowances
+     * Calculate gross salary with the configured developer allowances
+     * (by default 15% technical allowance plus 2% per year of experience)
      * 
+     * @param rules Allowance rules to apply
      * @return Gross salary amount
      */
     @Override
-    public double calculateGrossSalary() {
-        double technicalAllowance = getBasicSalary() * 0.15; // 15% technical allowance
-        double experienceBonus = getBasicSalary() * (0.02 * experienceYears); // 2% per year of experience
-        
-        return getBasicSalary() + technicalAllowance + experienceBonus;
+    protected double computeGrossSalary(AllowanceRules rules) {
+        return rules.grossSalary(PayrollConstants.EMPLOYEE_TYPE_DEVELOPER, getBasicSalary(), experienceYears, 0, 0);
+    }
+
+    /**
+     * Capture the current developer compensation
+     * 
+     * @param effectiveDate Date the compensation takes effect
+     * @return Compensation record holding the current attributes
+     */
+    @Override
+    public CompensationRecord currentCompensation(LocalDate effectiveDate) {
+        return new CompensationRecord(getId(), effectiveDate, getBasicSalary(), experienceYears, 0, 0);
     }
 
     /**
      * Get employee type
      * 
-     * @return "Developer"
+     * @return EmployeeType.DEVELOPER
      */
     @Override
-    public String getEmployeeType() {
-        return "Developer";
+    public EmployeeType getType() {
+        return EmployeeType.DEVELOPER;
     }
 
     /**
@@ -124,5 +137,6 @@ public class Developer extends Employee {
 
     public void setExperienceYears(int experienceYears) {
         this.experienceYears = experienceYears;
+        invalidateSalaryCache();
     }
 }
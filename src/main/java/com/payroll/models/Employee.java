@@ -1,6 +1,15 @@
 package com.payroll.models;
 
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.DepartmentDictionary;
+import com.payroll.utils.TaxTable;
+
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Abstract base class for all employee types
@@ -11,10 +20,12 @@ public abstract class Employee {
     private String name;
     private String email;
     private String phone;
-    private String department;
+    private int departmentCode; // Code in the DepartmentDictionary
     private LocalDate joiningDate;
     private double basicSalary;
     private int availableLeaveDays;
+    private volatile SalaryFigures salaryFigures; // Cached gross, tax and net; null when stale
+    private NavigableMap<LocalDate, CompensationRecord> compensationHistory; // Compensation by effective date
 
     /**
      * Constructor for Employee
@@ -33,34 +44,159 @@ public abstract class Employee {
         this.name = name;
         this.email = email;
         this.phone = phone;
-        this.department = department;
+        this.departmentCode = DepartmentDictionary.codeOf(department);
         this.joiningDate = joiningDate;
         this.basicSalary = basicSalary;
         this.availableLeaveDays = 20; // Default leave days
+        this.compensationHistory = new TreeMap<>();
     }
 
     /**
-     * Calculate gross salary
+     * Compute gross salary from the current attributes
      * Must be implemented by subclasses
      * 
+     * @param rules Allowance rules to apply
      * @return Gross salary amount
      */
-    public abstract double calculateGrossSalary();
+    protected abstract double computeGrossSalary(AllowanceRules rules);
+
+    /**
+     * Capture the current salary-relevant attributes
+     * Must be implemented by subclasses
+     * 
+     * @param effectiveDate Date the compensation takes effect
+     * @return Compensation record holding the current attributes
+     */
+    public abstract CompensationRecord currentCompensation(LocalDate effectiveDate);
+
+    /**
+     * Calculate gross salary
+     * The result is cached until an attribute it depends on changes
+     * 
+     * @return Gross salary amount
+     */
+    public double calculateGrossSalary() {
+        return salaryFigures().gross;
+    }
+
+    /**
+     * Calculate gross salary with the compensation in effect on a date
+     * 
+     * @param date The date
+     * @return Gross salary amount, or 0 if the employee had no compensation then
+     */
+    public double calculateGrossSalary(LocalDate date) {
+        if (!isCompensatedOn(date)) {
+            return 0;
+        }
+        CompensationRecord compensation = findSupersededCompensation(date);
+        if (compensation == null) {
+            return calculateGrossSalary();
+        }
+        return AllowanceRules.getDefault().grossSalary(getEmployeeType(), compensation.getBasicSalary(),
+                compensation.getExperienceYears(), compensation.getTeamSize(), compensation.getManagementLevel());
+    }
+
+    /**
+     * Get the basic salary in effect on a date
+     * 
+     * @param date The date
+     * @return Basic salary amount, or 0 if the employee had no compensation then
+     */
+    public double getBasicSalaryAsOf(LocalDate date) {
+        if (!isCompensatedOn(date)) {
+            return 0;
+        }
+        CompensationRecord compensation = findSupersededCompensation(date);
+        return compensation == null ? basicSalary : compensation.getBasicSalary();
+    }
+
+    /**
+     * Check if the employee had any compensation on a date, i.e. the date is
+     * on or after the first compensation record, or the joining date when
+     * there is no history
+     * 
+     * @param date The date
+     * @return true if a compensation was in effect
+     */
+    public boolean isCompensatedOn(LocalDate date) {
+        LocalDate start = compensationHistory.isEmpty() ? joiningDate : compensationHistory.firstKey();
+        return start == null || !date.isBefore(start);
+    }
+
+    /**
+     * Find the compensation in effect on a date
+     * 
+     * @param date The date
+     * @return The compensation in effect, or null if the date is before the
+     *         employee's first compensation
+     */
+    public CompensationRecord getCompensationAsOf(LocalDate date) {
+        if (!isCompensatedOn(date)) {
+            return null;
+        }
+        CompensationRecord compensation = findSupersededCompensation(date);
+        return compensation == null ? currentCompensation(date) : compensation;
+    }
+
+    /**
+     * Find the record in effect on a date if a later record superseded it.
+     * The current attributes are authoritative from the latest record on.
+     * 
+     * @param date The date, on or after the first compensation
+     * @return The superseded record in effect, or null if the current attributes apply
+     */
+    private CompensationRecord findSupersededCompensation(LocalDate date) {
+        Map.Entry<LocalDate, CompensationRecord> entry = compensationHistory.floorEntry(date);
+        if (entry == null || entry.getKey().equals(compensationHistory.lastKey())) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Record the current attributes as the compensation from a date on,
+     * unless they equal the compensation already in effect then
+     * 
+     * @param effectiveDate Date the compensation takes effect
+     * @return true if a record was added
+     */
+    public boolean recordCompensation(LocalDate effectiveDate) {
+        CompensationRecord current = currentCompensation(effectiveDate);
+        Map.Entry<LocalDate, CompensationRecord> inEffect = compensationHistory.floorEntry(effectiveDate);
+        if (inEffect != null && inEffect.getValue().sameCompensationAs(current)) {
+            return false;
+        }
+        compensationHistory.put(effectiveDate, current);
+        return true;
+    }
+
+    /**
+     * Add a compensation record, replacing any record with the same effective date
+     * 
+     * @param record The compensation record
+     */
+    public void addCompensationRecord(CompensationRecord record) {
+        compensationHistory.put(record.getEffectiveDate(), record);
+    }
 
     /**
-     * Calculate tax based on gross salary
+     * Get the compensation history
+     * 
+     * @return Unmodifiable records ordered by effective date
+     */
+    public Collection<CompensationRecord> getCompensationHistory() {
+        return Collections.unmodifiableCollection(compensationHistory.values());
+    }
+
+    /**
+     * Calculate progressive tax on a gross salary using the default tax table
      * 
      * @param grossSalary The gross salary
      * @return Tax amount
      */
     public double calculateTax(double grossSalary) {
-        if (grossSalary <= 20000) {
-            return grossSalary * 0.05; // 5% tax
-        } else if (grossSalary <= 50000) {
-            return grossSalary * 0.1; // 10% tax
-        } else {
-            return grossSalary * 0.15; // 15% tax
-        }
+        return TaxTable.getDefault().taxFor(grossSalary);
     }
 
     /**
@@ -69,17 +205,60 @@ public abstract class Employee {
      * @return Net salary amount
      */
     public double calculateNetSalary() {
-        double gross = calculateGrossSalary();
-        double tax = calculateTax(gross);
-        return gross - tax;
+        return salaryFigures().net;
+    }
+
+    /**
+     * Calculate tax on the employee's gross salary
+     * 
+     * @return Tax amount
+     */
+    public double calculateTax() {
+        return salaryFigures().tax;
+    }
+
+    /**
+     * Discard the cached salary figures
+     * Must be called whenever an attribute used by computeGrossSalary changes
+     */
+    protected void invalidateSalaryCache() {
+        salaryFigures = null;
+    }
+
+    /**
+     * Get the cached salary figures, computing them if stale
+     * 
+     * @return Gross, tax and net salary
+     */
+    private SalaryFigures salaryFigures() {
+        SalaryFigures figures = salaryFigures;
+        TaxTable taxTable = TaxTable.getDefault();
+        AllowanceRules allowanceRules = AllowanceRules.getDefault();
+        if (figures == null || figures.taxTable != taxTable || figures.allowanceRules != allowanceRules) {
+            double gross = computeGrossSalary(allowanceRules);
+            double tax = taxTable.taxFor(gross);
+            figures = new SalaryFigures(gross, tax, gross - tax, taxTable, allowanceRules);
+            salaryFigures = figures;
+        }
+        return figures;
     }
 
+    /**
+     * Get employee type
+     * Must be implemented by subclasses
+     * 
+     * @return Employee type
+     */
+    public abstract EmployeeType getType();
+
     /**
      * Get employee type
      * 
      * @return Employee type as string
      */
-    public abstract String getEmployeeType();
+    public String getEmployeeType() {
+        return getType().getLabel();
+    }
 
     /**
      * Get detailed information about employee
@@ -93,12 +272,13 @@ public abstract class Employee {
         sb.append("Type: ").append(getEmployeeType()).append("\n");
         sb.append("Email: ").append(email).append("\n");
         sb.append("Phone: ").append(phone).append("\n");
-        sb.append("Department: ").append(department).append("\n");
+        sb.append("Department: ").append(getDepartment()).append("\n");
         sb.append("Joining Date: ").append(joiningDate).append("\n");
         sb.append("Basic Salary: $").append(String.format("%.2f", basicSalary)).append("\n");
-        sb.append("Gross Salary: $").append(String.format("%.2f", calculateGrossSalary())).append("\n");
-        sb.append("Tax: $").append(String.format("%.2f", calculateTax(calculateGrossSalary()))).append("\n");
-        sb.append("Net Salary: $").append(String.format("%.2f", calculateNetSalary())).append("\n");
+        SalaryFigures figures = salaryFigures();
+        sb.append("Gross Salary: $").append(String.format("%.2f", figures.gross)).append("\n");
+        sb.append("Tax: $").append(String.format("%.2f", figures.tax)).append("\n");
+        sb.append("Net Salary: $").append(String.format("%.2f", figures.net)).append("\n");
         sb.append("Available Leave Days: ").append(availableLeaveDays).append("\n");
         return sb.toString();
     }
@@ -146,11 +326,15 @@ public abstract class Employee {
     }
 
     public String getDepartment() {
-        return department;
+        return DepartmentDictionary.nameOf(departmentCode);
+    }
+
+    public int getDepartmentCode() {
+        return departmentCode;
     }
 
     public void setDepartment(String department) {
-        this.department = department;
+        this.departmentCode = DepartmentDictionary.codeOf(department);
     }
 
     public LocalDate getJoiningDate() {
@@ -167,6 +351,7 @@ public abstract class Employee {
 
     public void setBasicSalary(double basicSalary) {
         this.basicSalary = basicSalary;
+        invalidateSalaryCache();
     }
 
     public int getAvailableLeaveDays() {
@@ -180,6 +365,25 @@ public abstract class Employee {
     @Override
     public String toString() {
         return String.format("ID: %s | Name: %s | Type: %s | Department: %s | Basic Salary: $%.2f",
-                id, name, getEmployeeType(), department, basicSalary);
+                id, name, getEmployeeType(), getDepartment(), basicSalary);
+    }
+
+    /**
+     * Immutable snapshot of derived salary figures
+     */
+    private static class SalaryFigures {
+        private final double gross;
+        private final double tax;
+        private final double net;
+        private final TaxTable taxTable; // Table the tax was computed with
+        private final AllowanceRules allowanceRules; // Rules the gross was computed with
+
+        private SalaryFigures(double gross, double tax, double net, TaxTable taxTable, AllowanceRules allowanceRules) {
+            this.gross = gross;
+            this.tax = tax;
+            this.net = net;
+            this.taxTable = taxTable;
+            this.allowanceRules = allowanceRules;
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.payroll.models;
+
+import com.payroll.utils.PayrollConstants;
+
+/**
+ * Kind of employee, stored as one shared constant per value
+ */
+public enum EmployeeType {
+    MANAGER(PayrollConstants.EMPLOYEE_TYPE_MANAGER),
+    DEVELOPER(PayrollConstants.EMPLOYEE_TYPE_DEVELOPER);
+
+    private final String label;
+
+    EmployeeType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Find the employee type written as a label
+     * 
+     * @param label The label, e.g. "Manager"
+     * @return The employee type, or null if the label is unknown
+     */
+    public static EmployeeType parse(String label) {
+        for (EmployeeType type : values()) {
+            if (type.label.equals(label.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the label used in files and on screen
+     * 
+     * @return The label
+     */
+    public String getLabel() {
+        return label;
+    }
+}
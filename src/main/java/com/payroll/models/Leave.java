@@ -1,6 +1,9 @@
 package com.payroll.models;
 
+import com.payroll.utils.BusinessCalendar;
+
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 
 /**
@@ -10,9 +13,9 @@ public class Leave {
     private String employeeId;
     private LocalDate startDate;
     private LocalDate endDate;
-    private String leaveType; // SICK, CASUAL, ANNUAL
+    private LeaveType leaveType;
     private String reason;
-    private String status; // PENDING, APPROVED, REJECTED
+    private LeaveStatus status;
 
     /**
      * Constructor for Leave
@@ -24,12 +27,7 @@ public class Leave {
      * @param reason Reason for leave
      */
     public Leave(String employeeId, LocalDate startDate, LocalDate endDate, String leaveType, String reason) {
-        this.employeeId = employeeId;
-        this.startDate = startDate;
-        this.endDate = endDate;
-        this.leaveType = leaveType;
-        this.reason = reason;
-        this.status = "PENDING"; // Default status
+        this(employeeId, startDate, endDate, parseLeaveType(leaveType), reason, LeaveStatus.PENDING); // Default status
     }
     
     /**
@@ -43,6 +41,20 @@ public class Leave {
      * @param status Status of leave application
      */
     public Leave(String employeeId, LocalDate startDate, LocalDate endDate, String leaveType, String reason, String status) {
+        this(employeeId, startDate, endDate, parseLeaveType(leaveType), reason, parseStatus(status));
+    }
+
+    /**
+     * Constructor for Leave with coded type and status
+     * 
+     * @param employeeId ID of the employee requesting leave
+     * @param startDate Start date of leave
+     * @param endDate End date of leave
+     * @param leaveType Type of leave
+     * @param reason Reason for leave
+     * @param status Status of leave application
+     */
+    public Leave(String employeeId, LocalDate startDate, LocalDate endDate, LeaveType leaveType, String reason, LeaveStatus status) {
         this.employeeId = employeeId;
         this.startDate = startDate;
         this.endDate = endDate;
@@ -51,6 +63,22 @@ public class Leave {
         this.status = status;
     }
 
+    private static LeaveType parseLeaveType(String label) {
+        LeaveType leaveType = LeaveType.parse(label);
+        if (leaveType == null) {
+            throw new IllegalArgumentException("unknown leave type '" + label + "'");
+        }
+        return leaveType;
+    }
+
+    private static LeaveStatus parseStatus(String label) {
+        LeaveStatus status = LeaveStatus.parse(label);
+        if (status == null) {
+            throw new IllegalArgumentException("unknown leave status '" + label + "'");
+        }
+        return status;
+    }
+
     /**
      * Calculate the duration of the leave in days
      * 
@@ -70,9 +98,9 @@ public class Leave {
                 employeeId,
                 startDate,
                 endDate,
-                leaveType,
+                leaveType.getLabel(),
                 reason.replace(",", ";"), // Replace commas to avoid CSV parsing issues
-                status);
+                status.getLabel());
     }
 
     /**
@@ -80,6 +108,7 @@ public class Leave {
      * 
      * @param csv CSV formatted string
      * @return Leave object
+     * @throws IllegalArgumentException if the leave type or status is unknown
      */
     public static Leave fromCsv(String csv) {
         String[] parts = csv.split(",", 6); // Limit to 6 parts to handle possible commas in reason
@@ -129,6 +158,26 @@ public class Leave {
         return ChronoUnit.DAYS.between(overlapStart, overlapEnd) + 1; // +1 to include both start and end days
     }
 
+    /**
+     * Count the working days of the leave in a month
+     * 
+     * @param month The month
+     * @param calendar Calendar defining the working days
+     * @return Number of working leave days in the month
+     */
+    public int getWorkingDaysInMonth(YearMonth month, BusinessCalendar calendar) {
+        int monthIndex = month.getYear() * 12 + month.getMonthValue();
+        int startIndex = startDate.getYear() * 12 + startDate.getMonthValue();
+        int endIndex = endDate.getYear() * 12 + endDate.getMonthValue();
+        if (startIndex > monthIndex || endIndex < monthIndex) {
+            return 0;
+        }
+        
+        int fromDay = startIndex == monthIndex ? startDate.getDayOfMonth() : 1;
+        int toDay = endIndex == monthIndex ? endDate.getDayOfMonth() : month.lengthOfMonth();
+        return calendar.workingDaysBetween(month, fromDay, toDay);
+    }
+
     /**
      * Getters and Setters
      */
@@ -157,10 +206,18 @@ public class Leave {
     }
 
     public String getLeaveType() {
+        return leaveType.getLabel();
+    }
+
+    public LeaveType getLeaveTypeCode() {
         return leaveType;
     }
 
     public void setLeaveType(String leaveType) {
+        this.leaveType = parseLeaveType(leaveType);
+    }
+
+    public void setLeaveType(LeaveType leaveType) {
         this.leaveType = leaveType;
     }
 
@@ -173,16 +230,24 @@ public class Leave {
     }
 
     public String getStatus() {
+        return status.getLabel();
+    }
+
+    public LeaveStatus getStatusCode() {
         return status;
     }
 
     public void setStatus(String status) {
+        this.status = parseStatus(status);
+    }
+
+    public void setStatus(LeaveStatus status) {
         this.status = status;
     }
 
     @Override
     public String toString() {
         return String.format("Leave [Employee ID: %s, From: %s, To: %s, Type: %s, Duration: %d days, Status: %s]",
-                employeeId, startDate, endDate, leaveType, getDuration(), status);
+                employeeId, startDate, endDate, leaveType.getLabel(), getDuration(), status.getLabel());
     }
 }
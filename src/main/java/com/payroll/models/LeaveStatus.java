@@ -0,0 +1,43 @@
+package com.payroll.models;
+
+import com.payroll.utils.PayrollConstants;
+
+/**
+ * Status of a leave application, stored as one shared constant per value
+ */
+public enum LeaveStatus {
+    PENDING(PayrollConstants.LEAVE_STATUS_PENDING),
+    APPROVED(PayrollConstants.LEAVE_STATUS_APPROVED),
+    REJECTED(PayrollConstants.LEAVE_STATUS_REJECTED),
+    CANCELLED(PayrollConstants.LEAVE_STATUS_CANCELLED); // Undone, but could not be removed from the store
+
+    private final String label;
+
+    LeaveStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Find the status written as a label
+     * 
+     * @param label The label, e.g. "APPROVED" (case-insensitive)
+     * @return The status, or null if the label is unknown
+     */
+    public static LeaveStatus parse(String label) {
+        for (LeaveStatus status : values()) {
+            if (status.label.equalsIgnoreCase(label.trim())) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the label used in files and on screen
+     * 
+     * @return The label
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,42 @@
+package com.payroll.models;
+
+import com.payroll.utils.PayrollConstants;
+
+/**
+ * Type of a leave, stored as one shared constant per value
+ */
+public enum LeaveType {
+    SICK(PayrollConstants.LEAVE_TYPE_SICK),
+    CASUAL(PayrollConstants.LEAVE_TYPE_CASUAL),
+    ANNUAL(PayrollConstants.LEAVE_TYPE_ANNUAL);
+
+    private final String label;
+
+    LeaveType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Find the leave type written as a label
+     * 
+     * @param label The label, e.g. "SICK" (case-insensitive)
+     * @return The leave type, or null if the label is unknown
+     */
+    public static LeaveType parse(String label) {
+        for (LeaveType type : values()) {
+            if (type.label.equalsIgnoreCase(label.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the label used in files and on screen
+     * 
+     * @return The label
+     */
+    public String getLabel() {
+        return label;
+    }
+}
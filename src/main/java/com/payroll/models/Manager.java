@@ -1,5 +1,8 @@
 package com.payroll.models;
 
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.PayrollConstants;
+
 import java.time.LocalDate;
 
 /**
@@ -31,26 +34,36 @@ public class Manager extends Employee {
     }
 
     /**
-     * Calculate gross salary with manager-specific allowances
+     * Calculate gross salary with the configured manager allowances
+     * (by default 10% per management level plus 0.5% per team member)
      * 
+     * @param rules Allowance rules to apply
      * @return Gross salary amount
      */
     @Override
-    public double calculateGrossSalary() {
-        double managementAllowance = getBasicSalary() * (0.1 * managementLevel); // 10% per management level
-        double teamAllowance = getBasicSalary() * (0.005 * teamSize); // 0.5% per team member
-        
-        return getBasicSalary() + managementAllowance + teamAllowance;
+    protected double computeGrossSalary(AllowanceRules rules) {
+        return rules.grossSalary(PayrollConstants.EMPLOYEE_TYPE_MANAGER, getBasicSalary(), 0, teamSize, managementLevel);
+    }
+
+    /**
+     * Capture the current manager compensation
+     * 
+     * @param effectiveDate Date the compensation takes effect
+     * @return Compensation record holding the current attributes
+     */
+    @Override
+    public CompensationRecord currentCompensation(LocalDate effectiveDate) {
+        return new CompensationRecord(getId(), effectiveDate, getBasicSalary(), 0, teamSize, managementLevel);
     }
 
     /**
      * Get employee type
      * 
-     * @return "Manager"
+     * @return EmployeeType.MANAGER
      */
     @Override
-    public String getEmployeeType() {
-        return "Manager";
+    public EmployeeType getType() {
+        return EmployeeType.MANAGER;
     }
 
     /**
@@ -116,6 +129,7 @@ public class Manager extends Employee {
 
     public void setTeamSize(int teamSize) {
         this.teamSize = teamSize;
+        invalidateSalaryCache();
     }
 
     public int getManagementLevel() {
@@ -124,5 +138,6 @@ public class Manager extends Employee {
 
     public void setManagementLevel(int managementLevel) {
         this.managementLevel = managementLevel;
+        invalidateSalaryCache();
     }
 }
@@ -0,0 +1,121 @@
+package com.payroll.models;
+
+/**
+ * PayrollTotals accumulates gross, tax and net amounts over a set of salary records
+ */
+public class PayrollTotals {
+    private int count;
+    private double grossSalary;
+    private double taxAmount;
+    private double netSalary;
+
+    /**
+     * Constructor for empty PayrollTotals
+     */
+    public PayrollTotals() {
+    }
+
+    /**
+     * Constructor for PayrollTotals with existing values
+     *
+     * @param count Number of salary records
+     * @param grossSalary Total gross salary
+     * @param taxAmount Total tax amount
+     * @param netSalary Total net salary
+     */
+    public PayrollTotals(int count, double grossSalary, double taxAmount, double netSalary) {
+        this.count = count;
+        this.grossSalary = grossSalary;
+        this.taxAmount = taxAmount;
+        this.netSalary = netSalary;
+    }
+
+    /**
+     * Add a salary record to the totals
+     *
+     * @param salary The salary record
+     */
+    public void add(Salary salary) {
+        add(salary.getGrossSalary(), salary.getTaxAmount(), salary.getNetSalary());
+    }
+
+    /**
+     * Add the amounts of one salary record to the totals
+     *
+     * @param grossSalary Gross salary of the record
+     * @param taxAmount Tax amount of the record
+     * @param netSalary Net salary of the record
+     */
+    public void add(double grossSalary, double taxAmount, double netSalary) {
+        count++;
+        this.grossSalary += grossSalary;
+        this.taxAmount += taxAmount;
+        this.netSalary += netSalary;
+    }
+
+    /**
+     * Remove a previously added salary record from the totals
+     *
+     * @param salary The salary record
+     */
+    public void subtract(Salary salary) {
+        subtract(salary.getGrossSalary(), salary.getTaxAmount(), salary.getNetSalary());
+    }
+
+    /**
+     * Remove the amounts of a previously added salary record from the totals
+     *
+     * @param grossSalary Gross salary of the record
+     * @param taxAmount Tax amount of the record
+     * @param netSalary Net salary of the record
+     */
+    public void subtract(double grossSalary, double taxAmount, double netSalary) {
+        count--;
+        this.grossSalary -= grossSalary;
+        this.taxAmount -= taxAmount;
+        this.netSalary -= netSalary;
+    }
+
+    /**
+     * Create an independent copy of the totals
+     *
+     * @return Copy of the totals
+     */
+    public PayrollTotals copy() {
+        return new PayrollTotals(count, grossSalary, taxAmount, netSalary);
+    }
+
+    /**
+     * Check if no salary records are included
+     *
+     * @return true if the totals are empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Getters
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public double getGrossSalary() {
+        return grossSalary;
+    }
+
+    public double getTaxAmount() {
+        return taxAmount;
+    }
+
+    public double getNetSalary() {
+        return netSalary;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Payslips: %d | Gross: $%.2f | Tax: $%.2f | Net: $%.2f",
+                count, grossSalary, taxAmount, netSalary);
+    }
+}
@@ -0,0 +1,92 @@
+package com.payroll.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * PayslipDiff describes how an employee's payslip changed between two pay periods
+ */
+public class PayslipDiff {
+    public static final String REASON_NEW_PAYSLIP = "NEW_PAYSLIP";
+    public static final String REASON_NO_PAYSLIP = "NO_PAYSLIP";
+    public static final String REASON_BASIC_CHANGED = "BASIC_CHANGED";
+    public static final String REASON_LEAVE_DAYS_CHANGED = "LEAVE_DAYS_CHANGED";
+    public static final String REASON_TAX_BRACKET_CHANGED = "TAX_BRACKET_CHANGED";
+    public static final String REASON_ALLOWANCES_CHANGED = "ALLOWANCES_CHANGED";
+    public static final String REASON_TAX_CHANGED = "TAX_CHANGED";
+
+    private final String employeeId;
+    private final Salary previous;
+    private final Salary current;
+    private final List<String> reasons;
+
+    /**
+     * Constructor for PayslipDiff
+     *
+     * @param employeeId The employee ID
+     * @param previous Payslip of the earlier period, or null if none
+     * @param current Payslip of the later period, or null if none
+     * @param reasons Reasons the payslip changed
+     */
+    public PayslipDiff(String employeeId, Salary previous, Salary current, List<String> reasons) {
+        this.employeeId = employeeId;
+        this.previous = previous;
+        this.current = current;
+        this.reasons = Collections.unmodifiableList(new ArrayList<>(reasons));
+    }
+
+    /**
+     * Component deltas (later period minus earlier period; a missing payslip counts as zero)
+     */
+    public double getBasicSalaryDelta() {
+        return amount(current, Salary::getBasicSalary) - amount(previous, Salary::getBasicSalary);
+    }
+
+    public double getGrossSalaryDelta() {
+        return amount(current, Salary::getGrossSalary) - amount(previous, Salary::getGrossSalary);
+    }
+
+    public double getTaxAmountDelta() {
+        return amount(current, Salary::getTaxAmount) - amount(previous, Salary::getTaxAmount);
+    }
+
+    public double getNetSalaryDelta() {
+        return amount(current, Salary::getNetSalary) - amount(previous, Salary::getNetSalary);
+    }
+
+    public int getLeaveDaysDelta() {
+        return (current == null ? 0 : current.getLeaveDays()) - (previous == null ? 0 : previous.getLeaveDays());
+    }
+
+    private static double amount(Salary salary, ToDoubleFunction<Salary> component) {
+        return salary == null ? 0 : component.applyAsDouble(salary);
+    }
+
+    /**
+     * Getters
+     */
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public Salary getPrevious() {
+        return previous;
+    }
+
+    public Salary getCurrent() {
+        return current;
+    }
+
+    public List<String> getReasons() {
+        return reasons;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Diff [Employee ID: %s, Basic: %+.2f, Gross: %+.2f, Tax: %+.2f, Net: %+.2f, Leave Days: %+d, Reasons: %s]",
+                employeeId, getBasicSalaryDelta(), getGrossSalaryDelta(), getTaxAmountDelta(),
+                getNetSalaryDelta(), getLeaveDaysDelta(), String.join(", ", reasons));
+    }
+}
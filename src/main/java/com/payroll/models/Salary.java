@@ -41,6 +41,13 @@ public class Salary {
         this.processDate = LocalDate.now();
     }
 
+    /**
+     * Constructor for subclasses that keep the salary values elsewhere
+     * and override the getters
+     */
+    protected Salary() {
+    }
+
     /**
      * Convert salary to CSV format for file storage
      * 
@@ -48,15 +55,15 @@ public class Salary {
      */
     public String toCsv() {
         return String.format("%s,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%s",
-                employeeId,
-                basicSalary,
-                grossSalary,
-                taxAmount,
-                netSalary,
-                month,
-                year,
-                leaveDays,
-                processDate);
+                getEmployeeId(),
+                getBasicSalary(),
+                getGrossSalary(),
+                getTaxAmount(),
+                getNetSalary(),
+                getMonth(),
+                getYear(),
+                getLeaveDays(),
+                getProcessDate());
     }
 
     /**
@@ -159,6 +166,7 @@ public class Salary {
     @Override
     public String toString() {
         return String.format("Salary [Employee ID: %s, Month: %d/%d, Basic: $%.2f, Gross: $%.2f, Tax: $%.2f, Net: $%.2f, Leave Days: %d]",
-                employeeId, month, year, basicSalary, grossSalary, taxAmount, netSalary, leaveDays);
+                getEmployeeId(), getMonth(), getYear(), getBasicSalary(), getGrossSalary(), getTaxAmount(),
+                getNetSalary(), getLeaveDays());
     }
 }
@@ -0,0 +1,62 @@
+package com.payroll.services;
+
+import com.payroll.utils.AllowanceFormula;
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.PayrollConstants;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AllowanceService loads allowance formulas per employee type and compiles them
+ */
+public class AllowanceService {
+
+    /**
+     * Load allowance rules from file. Each line holds an employee type, the
+     * name of an allowance and its formula; the allowances of a type are
+     * summed. Types without configured allowances keep the built-in rules.
+     * The compiled rules become the ones used for employee salary calculations.
+     */
+    public void loadAllowanceRules() {
+        Map<String, AllowanceFormula> formulas = new LinkedHashMap<>();
+        int ruleCount = 0;
+        
+        try (BufferedReader reader = new BufferedReader(new FileReader(PayrollConstants.ALLOWANCE_RULES_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",", 3);
+                if (parts.length < 3) {
+                    continue; // Skip invalid entries
+                }
+                
+                String employeeType = parts[0].trim();
+                try {
+                    AllowanceFormula formula = AllowanceFormula.compile(parts[2].trim());
+                    formulas.merge(employeeType, formula, AllowanceFormula::sum);
+                    ruleCount++;
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipping allowance " + parts[1].trim() + " for " + employeeType + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("No allowance rule configuration found. Using built-in allowances.");
+            return;
+        }
+        
+        AllowanceRules builtIn = AllowanceRules.builtIn();
+        Map<String, AllowanceFormula> rules = new HashMap<>(formulas);
+        for (String employeeType : new String[] {PayrollConstants.EMPLOYEE_TYPE_DEVELOPER, PayrollConstants.EMPLOYEE_TYPE_MANAGER}) {
+            if (!rules.containsKey(employeeType)) {
+                rules.put(employeeType, builtIn.getFormula(employeeType));
+            }
+        }
+        
+        AllowanceRules.setDefault(new AllowanceRules(rules));
+        System.out.println("Loaded " + ruleCount + " allowance rules.");
+    }
+}
@@ -0,0 +1,76 @@
+package com.payroll.services;
+
+import com.payroll.utils.BusinessCalendar;
+import com.payroll.utils.PayrollConstants;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CalendarService loads public holidays per region and builds working-day calendars
+ */
+public class CalendarService {
+    private Map<String, BusinessCalendar> calendars;
+
+    /**
+     * Constructor for CalendarService
+     * Starts with the built-in default calendar only
+     */
+    public CalendarService() {
+        this.calendars = new HashMap<>();
+        this.calendars.put(PayrollConstants.DEFAULT_JURISDICTION, BusinessCalendar.getDefault());
+    }
+
+    /**
+     * Load holidays from file. Each line holds a region, a date and the name
+     * of the holiday. The calendar of the default region becomes the one used
+     * for payroll calculations.
+     */
+    public void loadHolidays() {
+        Map<String, List<LocalDate>> holidays = new LinkedHashMap<>();
+        
+        try (BufferedReader reader = new BufferedReader(new FileReader(PayrollConstants.HOLIDAYS_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",", 3);
+                if (parts.length < 2) {
+                    continue; // Skip invalid entries
+                }
+                try {
+                    holidays.computeIfAbsent(parts[0].trim(), r -> new ArrayList<>()).add(LocalDate.parse(parts[1].trim()));
+                } catch (DateTimeParseException e) {
+                    System.out.println("Skipping holiday with invalid date: " + parts[1].trim());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("No holiday configuration found. Only weekends are non-working days.");
+            return;
+        }
+        
+        for (Map.Entry<String, List<LocalDate>> entry : holidays.entrySet()) {
+            calendars.put(entry.getKey(), new BusinessCalendar(entry.getKey(), entry.getValue()));
+        }
+        
+        BusinessCalendar.setDefault(getCalendar(PayrollConstants.DEFAULT_JURISDICTION));
+        System.out.println("Loaded holiday calendars for " + holidays.size() + " regions.");
+    }
+
+    /**
+     * Get the calendar of a region
+     * 
+     * @param region The region
+     * @return Its calendar, or the default calendar if the region is unknown
+     */
+    public BusinessCalendar getCalendar(String region) {
+        BusinessCalendar calendar = calendars.get(region);
+        return calendar != null ? calendar : calendars.get(PayrollConstants.DEFAULT_JURISDICTION);
+    }
+}
@@ -0,0 +1,79 @@
+package com.payroll.services;
+
+import com.payroll.models.EmployeeType;
+
+import java.time.LocalDate;
+
+/**
+ * EmployeeFilter describes search criteria for EmployeeService.findEmployees.
+ * Criteria left unset match every employee; set criteria are combined with AND.
+ */
+public class EmployeeFilter {
+    private String department;
+    private EmployeeType employeeType;
+    private LocalDate joinedFrom;
+    private LocalDate joinedTo;
+
+    /**
+     * Restrict the search to a department
+     *
+     * @param department The department
+     * @return This filter
+     */
+    public EmployeeFilter withDepartment(String department) {
+        this.department = department;
+        return this;
+    }
+
+    /**
+     * Restrict the search to an employee type
+     *
+     * @param employeeType The employee type
+     * @return This filter
+     */
+    public EmployeeFilter withEmployeeType(EmployeeType employeeType) {
+        this.employeeType = employeeType;
+        return this;
+    }
+
+    /**
+     * Restrict the search to employees who joined within a date range
+     *
+     * @param from First joining date to include, or null for no lower bound
+     * @param to Last joining date to include, or null for no upper bound
+     * @return This filter
+     */
+    public EmployeeFilter joinedBetween(LocalDate from, LocalDate to) {
+        this.joinedFrom = from;
+        this.joinedTo = to;
+        return this;
+    }
+
+    /**
+     * Check if a joining date range was set
+     *
+     * @return true if either bound is set
+     */
+    boolean hasJoiningDateRange() {
+        return joinedFrom != null || joinedTo != null;
+    }
+
+    /**
+     * Getters
+     */
+    public String getDepartment() {
+        return department;
+    }
+
+    public EmployeeType getEmployeeType() {
+        return employeeType;
+    }
+
+    public LocalDate getJoinedFrom() {
+        return joinedFrom;
+    }
+
+    public LocalDate getJoinedTo() {
+        return joinedTo;
+    }
+}
@@ -1,8 +1,12 @@
 package com.payroll.services;
 
+import com.payroll.models.CompensationRecord;
 import com.payroll.models.Developer;
 import com.payroll.models.Employee;
+import com.payroll.models.EmployeeType;
 import com.payroll.models.Manager;
+import com.payroll.utils.NameIndex;
+import com.payroll.utils.Page;
 import com.payroll.utils.PayrollConstants;
 
 import java.io.BufferedReader;
@@ -10,16 +14,41 @@ import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * EmployeeService provides methods for managing employees
  */
 public class EmployeeService {
     private Map<String, Employee> employees;
+    private NavigableSet<String> sortedIds; // Employee IDs in listing order
+    private LeaveBalanceLedger leaveBalanceLedger;
+    private Map<String, Set<String>> idsByDepartment; // Secondary index on department
+    private Map<EmployeeType, Set<String>> idsByType; // Secondary index on employee type
+    private TreeMap<LocalDate, Set<String>> idsByJoiningDate; // Range-ordered index on joining date
+    private Map<String, IndexedAttributes> indexedAttributes; // Values each employee is indexed under
+    private NameIndex nameIndex; // Prefix and fuzzy index on employee names
     private FileService fileService;
 
     /**
@@ -27,6 +56,13 @@ public class EmployeeService {
      */
     public EmployeeService() {
         this.employees = new HashMap<>();
+        this.sortedIds = new TreeSet<>();
+        this.leaveBalanceLedger = new LeaveBalanceLedger();
+        this.idsByDepartment = new HashMap<>();
+        this.idsByType = new EnumMap<>(EmployeeType.class);
+        this.idsByJoiningDate = new TreeMap<>();
+        this.indexedAttributes = new HashMap<>();
+        this.nameIndex = new NameIndex();
         this.fileService = new FileService();
     }
 
@@ -43,6 +79,9 @@ public class EmployeeService {
         }
         
         employees.put(employee.getId(), employee);
+        leaveBalanceLedger.register(employee);
+        indexEmployee(employee);
+        recordBaselineCompensation(employee);
         return true;
     }
 
@@ -53,12 +92,36 @@ public class EmployeeService {
      * @return true if successful, false if employee ID does not exist
      */
     public boolean updateEmployee(Employee employee) {
+        return updateEmployee(employee, LocalDate.now());
+    }
+
+    /**
+     * Update an existing employee, recording any compensation change as
+     * effective from a date so earlier pay periods keep their old compensation
+     * 
+     * @param employee The employee with updated information
+     * @param effectiveDate Date a compensation change takes effect
+     * @return true if successful, false if employee not found
+     */
+    public boolean updateEmployee(Employee employee, LocalDate effectiveDate) {
         if (!employees.containsKey(employee.getId())) {
             System.out.println("Employee with ID " + employee.getId() + " not found.");
             return false;
         }
         
-        employees.put(employee.getId(), employee);
+        Employee previous = employees.put(employee.getId(), employee);
+        if (previous != employee) {
+            leaveBalanceLedger.register(employee);
+            if (employee.getCompensationHistory().isEmpty()) {
+                previous.getCompensationHistory().forEach(employee::addCompensationRecord);
+            }
+        }
+        recordBaselineCompensation(employee);
+        employee.recordCompensation(effectiveDate);
+        
+        // The employee may have been changed in place, so re-index from the recorded values
+        unindexEmployee(employee.getId());
+        indexEmployee(employee);
         return true;
     }
 
@@ -75,12 +138,374 @@ public class EmployeeService {
     /**
      * Get all employees
      * 
-     * @return List of all employees
+     * @return New list holding all employees
      */
     public List<Employee> getAllEmployees() {
         return new ArrayList<>(employees.values());
     }
 
+    /**
+     * Get a read-only view of all employees without copying them
+     * 
+     * @return Unmodifiable view of all employees, in no particular order
+     */
+    public Collection<Employee> getEmployees() {
+        return Collections.unmodifiableCollection(employees.values());
+    }
+
+    /**
+     * Stream all employees in ID order
+     * 
+     * @return Stream of employees sorted by ID
+     */
+    public Stream<Employee> streamEmployees() {
+        return sortedIds.stream().map(employees::get);
+    }
+
+    /**
+     * Get one page of employees in ID order
+     * 
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param pageSize Maximum number of employees on the page
+     * @return The page of employees
+     */
+    public Page<Employee> getEmployeesPage(String cursor, int pageSize) {
+        NavigableSet<String> remaining = cursor == null ? sortedIds : sortedIds.tailSet(cursor, false);
+        List<Employee> items = new ArrayList<>(Math.min(pageSize, remaining.size()));
+        
+        String lastId = null;
+        for (String id : remaining) {
+            if (items.size() >= pageSize) {
+                return new Page<>(items, lastId);
+            }
+            items.add(employees.get(id));
+            lastId = id;
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Find employees matching a filter. Each criterion set contributes a posting
+     * list (the joining-date range contributes the index entries within it), and
+     * candidates come from the smallest one, so only employees that can match
+     * are examined.
+     * 
+     * @param filter The search criteria
+     * @return Matching employees, sorted by ID
+     */
+    public List<Employee> findEmployees(EmployeeFilter filter) {
+        List<Posting> postings = new ArrayList<>();
+        if (filter.getDepartment() != null) {
+            postings.add(Posting.of(idsByDepartment.getOrDefault(filter.getDepartment(), Collections.emptySet())));
+        }
+        if (filter.getEmployeeType() != null) {
+            postings.add(Posting.of(idsByType.getOrDefault(filter.getEmployeeType(), Collections.emptySet())));
+        }
+        if (filter.hasJoiningDateRange()) {
+            NavigableMap<LocalDate, Set<String>> range = joiningDateRange(filter);
+            int limit = postings.isEmpty() ? Integer.MAX_VALUE : Collections.min(postings, BY_SIZE).size;
+            postings.add(new Posting(() -> range.values().stream().flatMap(Set::stream).iterator(),
+                    countUpTo(range, limit), id -> range.containsKey(indexedAttributes.get(id).joiningDate)));
+        }
+        
+        Iterable<String> candidates;
+        if (!postings.isEmpty()) {
+            postings.sort(BY_SIZE);
+            candidates = postings.get(0).ids;
+        } else {
+            candidates = employees.keySet();
+        }
+        
+        List<Employee> result = new ArrayList<>();
+        for (String id : candidates) {
+            if (matchesPostings(id, postings)) {
+                result.add(employees.get(id));
+            }
+        }
+        
+        result.sort(Comparator.comparing(Employee::getId));
+        return result;
+    }
+
+    /**
+     * Find employees whose full name or any word of it starts with a prefix
+     * 
+     * @param prefix The name prefix (case-insensitive)
+     * @param limit Maximum number of employees to return
+     * @return Matching employees
+     */
+    public List<Employee> findEmployeesByNamePrefix(String prefix, int limit) {
+        return toEmployees(nameIndex.findByPrefix(prefix, limit));
+    }
+
+    /**
+     * Find employees whose name approximately matches a query, tolerating typos
+     * 
+     * @param query The name to look for (case-insensitive)
+     * @param limit Maximum number of employees to return
+     * @return Matching employees, sorted by ID
+     */
+    public List<Employee> findEmployeesBySimilarName(String query, int limit) {
+        List<Employee> result = toEmployees(nameIndex.findSimilar(query, limit));
+        result.sort(Comparator.comparing(Employee::getId));
+        return result;
+    }
+
+    private List<Employee> toEmployees(List<String> ids) {
+        List<Employee> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            result.add(employees.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Check if an employee ID appears in every posting list after the first
+     * 
+     * @param id The employee ID
+     * @param postings Posting lists, smallest first
+     * @return true if the ID is in all of them
+     */
+    private static boolean matchesPostings(String id, List<Posting> postings) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains.test(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the joining-date index entries within the range of a filter
+     * 
+     * @param filter The search criteria
+     * @return View of the matching index entries, empty if the range is inverted
+     */
+    private NavigableMap<LocalDate, Set<String>> joiningDateRange(EmployeeFilter filter) {
+        LocalDate from = filter.getJoinedFrom();
+        LocalDate to = filter.getJoinedTo();
+        if (from != null && to != null) {
+            return from.isAfter(to) ? Collections.emptyNavigableMap() : idsByJoiningDate.subMap(from, true, to, true);
+        }
+        if (from != null) {
+            return idsByJoiningDate.tailMap(from, true);
+        }
+        return to != null ? idsByJoiningDate.headMap(to, true) : idsByJoiningDate;
+    }
+
+    /**
+     * Count the employee IDs in a joining-date range, stopping once a limit is passed
+     * 
+     * @param range The joining-date index entries
+     * @param limit Count beyond which the exact number does not matter
+     * @return The number of IDs, or a number above the limit
+     */
+    private static int countUpTo(NavigableMap<LocalDate, Set<String>> range, int limit) {
+        int count = 0;
+        for (Set<String> ids : range.values()) {
+            count += ids.size();
+            if (count > limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Add an employee to the secondary indexes
+     * 
+     * @param employee The employee
+     */
+    private void indexEmployee(Employee employee) {
+        IndexedAttributes attributes = new IndexedAttributes(employee);
+        indexedAttributes.put(employee.getId(), attributes);
+        sortedIds.add(employee.getId());
+        
+        idsByDepartment.computeIfAbsent(attributes.department, k -> new HashSet<>()).add(employee.getId());
+        idsByType.computeIfAbsent(attributes.employeeType, k -> new HashSet<>()).add(employee.getId());
+        idsByJoiningDate.computeIfAbsent(attributes.joiningDate, k -> new HashSet<>()).add(employee.getId());
+        nameIndex.add(employee.getId(), employee.getName());
+    }
+
+    /**
+     * Remove an employee from the secondary indexes using the values it was indexed under
+     * 
+     * @param id The employee ID
+     */
+    private void unindexEmployee(String id) {
+        IndexedAttributes attributes = indexedAttributes.remove(id);
+        if (attributes == null) {
+            return;
+        }
+        
+        sortedIds.remove(id);
+        removePosting(idsByDepartment, attributes.department, id);
+        removePosting(idsByType, attributes.employeeType, id);
+        removePosting(idsByJoiningDate, attributes.joiningDate, id);
+        nameIndex.remove(id);
+    }
+
+    private static <K> void removePosting(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Import employees in bulk from a CSV file in the employees.csv layout.
+     * Rows are parsed and validated in parallel; valid rows are then inserted
+     * in a single step and persisted with one write.
+     * 
+     * @param filePath Path of the CSV file to import
+     * @return Import summary with per-row errors
+     */
+    public ImportResult importEmployees(String filePath) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(filePath));
+        } catch (IOException e) {
+            List<String> errors = new ArrayList<>();
+            errors.add("Error reading file " + filePath + ": " + e.getMessage());
+            return new ImportResult(0, 0, errors);
+        }
+        
+        Employee[] parsed = new Employee[lines.size()];
+        String[] rowErrors = new String[lines.size()];
+        
+        IntStream.range(0, lines.size()).parallel().forEach(i -> {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                return;
+            }
+            try {
+                parsed[i] = parseEmployeeRow(line);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                rowErrors[i] = "Line " + (i + 1) + ": " + e.getMessage();
+            }
+        });
+        
+        // Duplicate checks need to see rows in file order, so they run after the parallel phase
+        Map<String, Employee> batch = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        int totalRows = 0;
+        
+        for (int i = 0; i < parsed.length; i++) {
+            if (rowErrors[i] != null) {
+                totalRows++;
+                errors.add(rowErrors[i]);
+                continue;
+            }
+            
+            Employee employee = parsed[i];
+            if (employee == null) {
+                continue; // Blank line
+            }
+            
+            totalRows++;
+            if (employees.containsKey(employee.getId())) {
+                errors.add("Line " + (i + 1) + ": employee ID " + employee.getId() + " already exists");
+            } else if (batch.containsKey(employee.getId())) {
+                errors.add("Line " + (i + 1) + ": duplicate employee ID " + employee.getId() + " in file");
+            } else {
+                batch.put(employee.getId(), employee);
+            }
+        }
+        
+        if (!batch.isEmpty()) {
+            employees.putAll(batch);
+            batch.values().forEach(leaveBalanceLedger::register);
+            batch.values().forEach(this::indexEmployee);
+            batch.values().forEach(this::recordBaselineCompensation);
+            saveEmployees();
+        }
+        
+        return new ImportResult(totalRows, batch.size(), errors);
+    }
+
+    /**
+     * Parse and validate a single employee CSV row
+     * 
+     * @param line CSV row in the employees.csv layout
+     * @return The parsed employee
+     * @throws IllegalArgumentException if the row is invalid
+     * @throws DateTimeParseException if the joining date is malformed
+     */
+    private static Employee parseEmployeeRow(String line) {
+        String[] parts = line.split(",", -1);
+        if (parts.length != 10) {
+            throw new IllegalArgumentException("expected 10 fields but found " + parts.length);
+        }
+        
+        String id = requireText(parts[0], "ID");
+        String name = requireText(parts[1], "name");
+        String email = parts[2].trim();
+        if (!email.contains("@")) {
+            throw new IllegalArgumentException("invalid email '" + email + "'");
+        }
+        String phone = parts[3].trim();
+        String department = requireText(parts[4], "department");
+        
+        LocalDate joiningDate = LocalDate.parse(parts[5].trim());
+        if (joiningDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("joining date " + joiningDate + " is in the future");
+        }
+        
+        double basicSalary = parseNumber(parts[6], "basic salary");
+        if (basicSalary < 0) {
+            throw new IllegalArgumentException("basic salary must not be negative");
+        }
+        
+        EmployeeType employeeType = EmployeeType.parse(parts[7]);
+        if (employeeType == EmployeeType.MANAGER) {
+            int teamSize = parseCount(parts[8], "team size");
+            int managementLevel = parseCount(parts[9], "management level");
+            if (managementLevel < 1 || managementLevel > 3) {
+                throw new IllegalArgumentException("management level must be between 1 and 3");
+            }
+            return new Manager(id, name, email, phone, department, joiningDate, basicSalary, teamSize, managementLevel);
+        } else if (employeeType == EmployeeType.DEVELOPER) {
+            String programmingLanguage = requireText(parts[8], "programming language");
+            int experienceYears = parseCount(parts[9], "experience years");
+            return new Developer(id, name, email, phone, department, joiningDate, basicSalary,
+                    programmingLanguage, experienceYears);
+        }
+        
+        throw new IllegalArgumentException("unknown employee type '" + parts[7].trim() + "'");
+    }
+
+    private static String requireText(String value, String field) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return trimmed;
+    }
+
+    private static double parseNumber(String value, String field) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+    }
+
+    private static int parseCount(String value, String field) {
+        int count;
+        try {
+            count = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException(field + " must not be negative");
+        }
+        return count;
+    }
+
     /**
      * Load employees from file
      */
@@ -93,23 +518,66 @@ public class EmployeeService {
                     continue; // Skip invalid entries
                 }
                 
-                String employeeType = parts[7];
+                EmployeeType employeeType = EmployeeType.parse(parts[7]);
                 Employee employee;
                 
-                if (employeeType.equals("Manager")) {
+                if (employeeType == EmployeeType.MANAGER) {
                     employee = Manager.fromCsv(line);
-                } else if (employeeType.equals("Developer")) {
+                } else if (employeeType == EmployeeType.DEVELOPER) {
                     employee = Developer.fromCsv(line);
                 } else {
                     continue; // Skip unknown employee types
                 }
                 
                 employees.put(employee.getId(), employee);
+                leaveBalanceLedger.register(employee);
+                indexEmployee(employee);
             }
             System.out.println("Loaded " + employees.size() + " employees.");
         } catch (IOException e) {
             System.out.println("No existing employee data found or error reading file. Starting with empty employee list.");
         }
+        
+        loadCompensationHistory();
+    }
+
+    /**
+     * Load compensation records from file and attach them to their employees.
+     * Employees without any record get their current compensation as of their
+     * joining date.
+     */
+    private void loadCompensationHistory() {
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(PayrollConstants.COMPENSATION_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                CompensationRecord record = CompensationRecord.fromCsv(line);
+                Employee employee = employees.get(record.getEmployeeId());
+                if (employee != null) {
+                    employee.addCompensationRecord(record);
+                    count++;
+                }
+            }
+            System.out.println("Loaded " + count + " compensation records.");
+        } catch (IOException e) {
+            System.out.println("No existing compensation history found. Starting from current compensation.");
+        }
+        
+        for (Employee employee : employees.values()) {
+            recordBaselineCompensation(employee);
+        }
+    }
+
+    /**
+     * Record an employee's current compensation as of their joining date if
+     * they have no compensation history yet
+     * 
+     * @param employee The employee
+     */
+    private void recordBaselineCompensation(Employee employee) {
+        if (employee.getCompensationHistory().isEmpty()) {
+            employee.recordCompensation(employee.getJoiningDate());
+        }
     }
 
     /**
@@ -125,26 +593,84 @@ public class EmployeeService {
         } catch (IOException e) {
             System.out.println("Error saving employees: " + e.getMessage());
         }
+        
+        saveCompensationHistory();
+    }
+
+    /**
+     * Save the compensation records of all employees to file
+     */
+    private void saveCompensationHistory() {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PayrollConstants.COMPENSATION_FILE))) {
+            for (String id : sortedIds) {
+                for (CompensationRecord record : employees.get(id).getCompensationHistory()) {
+                    writer.write(record.toCsv());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error saving compensation history: " + e.getMessage());
+        }
     }
 
     /**
-     * Deduct leave days from an employee's available leave days
+     * Deduct leave days from an employee's available leave days.
+     * The check and the deduction happen atomically through the leave balance ledger.
      * 
      * @param employeeId The employee ID
      * @param days Number of days to deduct
      * @return true if successful, false if employee not found or insufficient leave days
      */
     public boolean deductLeaveDays(String employeeId, int days) {
-        Employee employee = getEmployeeById(employeeId);
-        if (employee == null) {
+        if (!leaveBalanceLedger.reserve(employeeId, days)) {
             return false;
         }
         
-        if (employee.getAvailableLeaveDays() < days) {
-            return false;
+        return leaveBalanceLedger.commit(employeeId, days);
+    }
+
+    /**
+     * Get the ledger holding available and reserved leave days
+     * 
+     * @return The leave balance ledger
+     */
+    public LeaveBalanceLedger getLeaveBalanceLedger() {
+        return leaveBalanceLedger;
+    }
+
+    private static final Comparator<Posting> BY_SIZE = Comparator.comparingInt(posting -> posting.size);
+
+    /**
+     * Employee IDs matching one search criterion
+     */
+    private static class Posting {
+        private final Iterable<String> ids;
+        private final int size;
+        private final Predicate<String> contains;
+
+        private Posting(Iterable<String> ids, int size, Predicate<String> contains) {
+            this.ids = ids;
+            this.size = size;
+            this.contains = contains;
+        }
+
+        private static Posting of(Set<String> ids) {
+            return new Posting(ids, ids.size(), ids::contains);
+        }
+    }
+
+    /**
+     * Snapshot of the attribute values an employee is indexed under
+     */
+    private static class IndexedAttributes {
+        private final String department;
+        private final EmployeeType employeeType;
+        private final LocalDate joiningDate;
+
+        private IndexedAttributes(Employee employee) {
+            this.department = employee.getDepartment();
+            this.employeeType = employee.getType();
+            this.joiningDate = employee.getJoiningDate();
         }
-        
-        employee.setAvailableLeaveDays(employee.getAvailableLeaveDays() - days);
-        return true;
     }
 }
@@ -0,0 +1,9 @@
+package com.payroll.services;
+
+/**
+ * File formats supported by the salary export
+ */
+public enum ExportFormat {
+    CSV,
+    JSON_LINES
+}
@@ -0,0 +1,156 @@
+package com.payroll.services;
+
+import com.payroll.models.Employee;
+import com.payroll.models.Salary;
+import com.payroll.utils.PayrollConstants;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * ExportService streams salary records matching a filter to a CSV or JSON lines file.
+ * Records are written one at a time through a 64 KB BufferedWriter over the file
+ * output stream, so memory use does not depend on how many records are exported.
+ */
+public class ExportService {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String CSV_HEADER =
+            "employeeId,department,month,year,basicSalary,grossSalary,taxAmount,netSalary,leaveDays,processDate";
+
+    private PayrollService payrollService;
+    private EmployeeService employeeService;
+
+    /**
+     * Constructor for ExportService
+     * 
+     * @param payrollService Source of the salary records
+     * @param employeeService Used to resolve departments of salaries processed before rollups existed
+     */
+    public ExportService(PayrollService payrollService, EmployeeService employeeService) {
+        this.payrollService = payrollService;
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * Export the salary records matching a filter
+     * 
+     * @param filter Which records to export
+     * @param format Output file format
+     * @param filePath Path of the file to write
+     * @return Number of records written
+     * @throws IOException if the file cannot be written
+     */
+    public long exportSalaries(SalaryFilter filter, ExportFormat format, String filePath) throws IOException {
+        long count = 0;
+        StringBuilder row = new StringBuilder(160);
+        
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(Paths.get(filePath)), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            
+            List<Salary> salaries = payrollService.getAllSalaries();
+            for (int position = 0; position < salaries.size(); position++) {
+                Salary salary = salaries.get(position);
+                if (!filter.matches(salary.getEmployeeId(), salary.getMonth(), salary.getYear())) {
+                    continue;
+                }
+                String department = departmentOf(position, salary);
+                if (!filter.matchesDepartment(department)) {
+                    continue;
+                }
+                
+                row.setLength(0);
+                if (format == ExportFormat.CSV) {
+                    appendCsv(row, salary, department);
+                } else {
+                    appendJson(row, salary, department);
+                }
+                row.append('\n');
+                writer.append(row);
+                count++;
+            }
+        }
+        
+        return count;
+    }
+
+    private String departmentOf(int position, Salary salary) {
+        String department = payrollService.getSalaryDepartment(position); // Stored in the record
+        if (department != null) {
+            return department;
+        }
+        
+        Employee employee = employeeService.getEmployeeById(salary.getEmployeeId());
+        return employee != null ? employee.getDepartment() : PayrollConstants.UNKNOWN_DEPARTMENT;
+    }
+
+    private static void appendCsv(StringBuilder row, Salary salary, String department) {
+        row.append(salary.getEmployeeId()).append(',')
+           .append(department).append(',')
+           .append(salary.getMonth()).append(',')
+           .append(salary.getYear()).append(',');
+        appendAmount(row, salary.getBasicSalary()).append(',');
+        appendAmount(row, salary.getGrossSalary()).append(',');
+        appendAmount(row, salary.getTaxAmount()).append(',');
+        appendAmount(row, salary.getNetSalary()).append(',');
+        row.append(salary.getLeaveDays()).append(',')
+           .append(salary.getProcessDate());
+    }
+
+    private static void appendJson(StringBuilder row, Salary salary, String department) {
+        row.append("{\"employeeId\":");
+        appendJsonString(row, salary.getEmployeeId());
+        row.append(",\"department\":");
+        appendJsonString(row, department);
+        row.append(",\"month\":").append(salary.getMonth())
+           .append(",\"year\":").append(salary.getYear())
+           .append(",\"basicSalary\":");
+        appendAmount(row, salary.getBasicSalary()).append(",\"grossSalary\":");
+        appendAmount(row, salary.getGrossSalary()).append(",\"taxAmount\":");
+        appendAmount(row, salary.getTaxAmount()).append(",\"netSalary\":");
+        appendAmount(row, salary.getNetSalary()).append(",\"leaveDays\":")
+           .append(salary.getLeaveDays())
+           .append(",\"processDate\":\"").append(salary.getProcessDate()).append("\"}");
+    }
+
+    /**
+     * Append an amount with two decimals without going through String.format
+     */
+    private static StringBuilder appendAmount(StringBuilder row, double amount) {
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            row.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        row.append(cents / 100).append('.');
+        if (fraction < 10) {
+            row.append('0');
+        }
+        return row.append(fraction);
+    }
+
+    private static void appendJsonString(StringBuilder row, String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                row.append('\\').append(c);
+            } else if (c < 0x20) {
+                row.append(String.format("\\u%04x", (int) c));
+            } else {
+                row.append(c);
+            }
+        }
+        row.append('"');
+    }
+}
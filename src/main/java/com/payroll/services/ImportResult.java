@@ -0,0 +1,61 @@
+package com.payroll.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportResult summarises the outcome of a bulk employee import
+ */
+public class ImportResult {
+    private final int totalRows;
+    private final int importedCount;
+    private final List<String> errors;
+
+    /**
+     * Constructor for ImportResult
+     *
+     * @param totalRows Number of non-empty rows read from the file
+     * @param importedCount Number of employees inserted
+     * @param errors Per-row error messages, in file order
+     */
+    public ImportResult(int totalRows, int importedCount, List<String> errors) {
+        this.totalRows = totalRows;
+        this.importedCount = importedCount;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    /**
+     * Check if every row was imported
+     *
+     * @return true if no row was rejected
+     */
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * Getters
+     */
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public int getRejectedCount() {
+        return errors.size();
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Import [Rows: %d, Imported: %d, Rejected: %d]",
+                totalRows, importedCount, errors.size());
+    }
+}
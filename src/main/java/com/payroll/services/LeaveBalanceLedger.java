@@ -0,0 +1,187 @@
+package com.payroll.services;
+
+import com.payroll.models.Employee;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LeaveBalanceLedger tracks available and reserved leave days per employee.
+ * Each balance is a single atomic word updated with compare-and-set, so
+ * concurrent approvals for different employees never contend and two
+ * approvals for the same employee can never overdraw the balance.
+ */
+public class LeaveBalanceLedger {
+    private final Map<String, Balance> balances;
+
+    /**
+     * Constructor for LeaveBalanceLedger
+     */
+    public LeaveBalanceLedger() {
+        this.balances = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Start tracking an employee's balance from their current available leave days
+     *
+     * @param employee The employee
+     */
+    public void register(Employee employee) {
+        balances.put(employee.getId(), new Balance(employee));
+    }
+
+    /**
+     * Stop tracking an employee's balance
+     *
+     * @param employeeId The employee ID
+     */
+    public void unregister(String employeeId) {
+        balances.remove(employeeId);
+    }
+
+    /**
+     * Atomically move leave days from available to reserved
+     *
+     * @param employeeId The employee ID
+     * @param days Number of days to reserve
+     * @return true if reserved, false if employee not found or insufficient leave days
+     */
+    public boolean reserve(String employeeId, int days) {
+        Balance balance = balances.get(employeeId);
+        if (balance == null || days < 0) {
+            return false;
+        }
+
+        while (true) {
+            long state = balance.state.get();
+            int available = available(state);
+            if (available < days) {
+                return false;
+            }
+            if (balance.state.compareAndSet(state, pack(available - days, reserved(state) + days))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Consume previously reserved leave days and write the new balance back to the employee
+     *
+     * @param employeeId The employee ID
+     * @param days Number of reserved days to consume
+     * @return true if committed, false if employee not found or not enough days reserved
+     */
+    public boolean commit(String employeeId, int days) {
+        Balance balance = balances.get(employeeId);
+        if (balance == null || !balance.adjust(0, -days)) {
+            return false;
+        }
+
+        balance.syncToEmployee();
+        return true;
+    }
+
+    /**
+     * Return previously reserved leave days to the available balance
+     *
+     * @param employeeId The employee ID
+     * @param days Number of reserved days to release
+     * @return true if released, false if employee not found or not enough days reserved
+     */
+    public boolean release(String employeeId, int days) {
+        Balance balance = balances.get(employeeId);
+        if (balance == null) {
+            return false;
+        }
+
+        return balance.adjust(days, -days);
+    }
+
+    /**
+     * Give back leave days that were committed, e.g. when an approved leave is undone,
+     * and write the new balance back to the employee
+     *
+     * @param employeeId The employee ID
+     * @param days Number of committed days to return
+     * @return true if refunded, false if employee not found
+     */
+    public boolean refund(String employeeId, int days) {
+        Balance balance = balances.get(employeeId);
+        if (balance == null || days < 0 || !balance.adjust(days, 0)) {
+            return false;
+        }
+
+        balance.syncToEmployee();
+        return true;
+    }
+
+    /**
+     * Get the leave days still available to reserve
+     *
+     * @param employeeId The employee ID
+     * @return Available days, or 0 if employee not found
+     */
+    public int getAvailableDays(String employeeId) {
+        Balance balance = balances.get(employeeId);
+        return balance == null ? 0 : available(balance.state.get());
+    }
+
+    /**
+     * Get the leave days reserved but not yet committed
+     *
+     * @param employeeId The employee ID
+     * @return Reserved days, or 0 if employee not found
+     */
+    public int getReservedDays(String employeeId) {
+        Balance balance = balances.get(employeeId);
+        return balance == null ? 0 : reserved(balance.state.get());
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int available(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+
+    /**
+     * Balance of a single employee packed into one atomic word:
+     * available days in the high 32 bits, reserved days in the low 32 bits
+     */
+    private static class Balance {
+        private final Employee employee;
+        private final AtomicLong state;
+
+        private Balance(Employee employee) {
+            this.employee = employee;
+            this.state = new AtomicLong(pack(employee.getAvailableLeaveDays(), 0));
+        }
+
+        private boolean adjust(int availableDelta, int reservedDelta) {
+            while (true) {
+                long current = state.get();
+                int reserved = reserved(current) + reservedDelta;
+                if (reserved < 0) {
+                    return false;
+                }
+                if (state.compareAndSet(current, pack(available(current) + availableDelta, reserved))) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Publish the latest available balance to the employee. The lock is per
+         * employee, so writers never publish a stale value over a newer one.
+         */
+        private synchronized void syncToEmployee() {
+            employee.setAvailableLeaveDays(available(state.get()));
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.payroll.services;
 
 import com.payroll.models.Leave;
+import com.payroll.models.LeaveStatus;
+import com.payroll.utils.DisjointIntervals;
+import com.payroll.utils.LeaveDayIndex;
+import com.payroll.utils.Page;
 import com.payroll.utils.PayrollConstants;
 
 import java.io.BufferedReader;
@@ -9,24 +13,43 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
- * LeaveService provides methods for managing employee leaves
+ * LeaveService provides methods for managing employee leaves.
+ * Leaves are kept in a compact LeaveStore and indexed by their position in it;
+ * the Leave objects this service returns are snapshots.
  */
 public class LeaveService {
-    private List<Leave> leaves;
-    private Stack<Leave> recentLeaves; // Stack to track recent leave applications
+    private LeaveStore leaves;
+    private int[] recentLeaves; // Ring buffer of leaves applied in this session, the bounded undo log
+    private int recentEnd; // Slot after the most recent application
+    private int recentCount; // Applications still undoable
+    private Map<String, DisjointIntervals> activeLeavesByEmployee; // Pending and approved leaves per employee
+    private Map<String, int[]> conflictingLeaves; // Loaded leaves per employee that overlap an earlier active leave
+    private LeaveDayIndex approvedLeaveDays; // Days on approved leave per employee and year
     private FileService fileService;
 
     /**
      * Constructor for LeaveService
      */
     public LeaveService() {
-        this.leaves = new ArrayList<>();
-        this.recentLeaves = new Stack<>();
+        this.leaves = new LeaveStore();
+        this.recentLeaves = new int[PayrollConstants.UNDO_LOG_CAPACITY];
+        this.activeLeavesByEmployee = new ConcurrentHashMap<>();
+        this.conflictingLeaves = new HashMap<>();
+        this.approvedLeaveDays = new LeaveDayIndex();
         this.fileService = new FileService();
     }
 
@@ -34,32 +57,187 @@ public class LeaveService {
      * Apply for a new leave
      * 
      * @param leave The leave to apply
-     * @return true if successful
+     * @return true if successful, false if the dates are invalid or overlap an existing leave
      */
     public boolean applyLeave(Leave leave) {
-        leaves.add(leave);
-        recentLeaves.push(leave);
+        if (leave.getEndDate().isBefore(leave.getStartDate())) {
+            System.out.println("Leave end date " + leave.getEndDate() + " is before start date " + leave.getStartDate() + ".");
+            return false;
+        }
+        
+        // Checked and inserted in one step per employee, so overlapping applications cannot both pass
+        long startDay = leave.getStartDate().toEpochDay();
+        long endDay = leave.getEndDate().toEpochDay();
+        int[] result = {-1, -1}; // Stored index, overlapping index
+        activeLeavesByEmployee.compute(leave.getEmployeeId(), (id, employeeLeaves) -> {
+            DisjointIntervals current = employeeLeaves == null ? DisjointIntervals.empty() : employeeLeaves;
+            result[1] = current.findAnyOverlapping(startDay, endDay);
+            if (result[1] >= 0) {
+                return employeeLeaves;
+            }
+            synchronized (leaves) {
+                result[0] = leaves.add(leave);
+                recentLeaves[recentEnd] = result[0]; // Overwrites the oldest application once the log is full
+                recentEnd = (recentEnd + 1) % recentLeaves.length;
+                recentCount = Math.min(recentCount + 1, recentLeaves.length);
+            }
+            return current.with((int) startDay, (int) endDay, result[0]);
+        });
+        if (result[1] >= 0) {
+            System.out.println("Leave overlaps an existing leave for employee " + leave.getEmployeeId() + ": " + leaves.toLeave(result[1]));
+            return false;
+        }
+        
+        if (leaves.getStatus(result[0]) == LeaveStatus.APPROVED) {
+            addLeaveDays(result[0]);
+        }
         return true;
     }
 
     /**
-     * Approve a leave application
+     * Find a pending or approved leave of an employee that overlaps a date range
+     * 
+     * @param employeeId The employee ID
+     * @param startDate Start of the range
+     * @param endDate End of the range
+     * @return An overlapping leave, or null if the range is free
+     */
+    public Leave findOverlappingLeave(String employeeId, LocalDate startDate, LocalDate endDate) {
+        int index = findOverlappingIndex(employeeId, startDate.toEpochDay(), endDate.toEpochDay());
+        return index < 0 ? null : leaves.toLeave(index);
+    }
+
+    private int findOverlappingIndex(String employeeId, long startDay, long endDay) {
+        DisjointIntervals employeeLeaves = activeLeavesByEmployee.get(employeeId);
+        return employeeLeaves == null ? -1 : employeeLeaves.findAnyOverlapping(startDay, endDay);
+    }
+
+    /**
+     * Get approved leaves that overlap a date range
+     * 
+     * @param startDate Start of the range
+     * @param endDate End of the range
+     * @return Approved leaves overlapping the range, ordered by start date
+     */
+    public List<Leave> getApprovedLeavesBetween(LocalDate startDate, LocalDate endDate) {
+        int[] approved = findApprovedBetween(startDate.toEpochDay(), endDate.toEpochDay());
+        // Sort by start day, then index, packed into one long per leave
+        long[] keys = new long[approved.length];
+        for (int i = 0; i < approved.length; i++) {
+            keys[i] = (long) leaves.getStartDay(approved[i]) << 32 | approved[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            approved[i] = (int) keys[i];
+        }
+        return toLeaves(approved);
+    }
+
+    /**
+     * Get the employees on approved leave at any point in a date range
+     * 
+     * @param startDate Start of the range
+     * @param endDate End of the range
+     * @return Sorted set of employee IDs
+     */
+    public Set<String> getEmployeesOnLeave(LocalDate startDate, LocalDate endDate) {
+        Set<String> employeeIds = new TreeSet<>();
+        for (int index : findApprovedBetween(startDate.toEpochDay(), endDate.toEpochDay())) {
+            employeeIds.add(leaves.getEmployeeId(index));
+        }
+        return employeeIds;
+    }
+
+    /**
+     * Find approved leaves overlapping a range by querying each employee's
+     * intervals, so approvals never contend on a shared index
+     * 
+     * @param startDay First epoch day of the range
+     * @param endDay Last epoch day of the range
+     * @return Indexes of the approved leaves
+     */
+    private int[] findApprovedBetween(long startDay, long endDay) {
+        IntStream.Builder approved = IntStream.builder();
+        for (DisjointIntervals employeeLeaves : activeLeavesByEmployee.values()) {
+            employeeLeaves.forEachOverlapping(startDay, endDay, index -> {
+                if (leaves.getStatus(index) == LeaveStatus.APPROVED) {
+                    approved.add(index);
+                }
+            });
+        }
+        return approved.build().toArray();
+    }
+
+    /**
+     * Get loaded leaves that were flagged because they overlap an earlier
+     * pending or approved leave of the same employee
+     * 
+     * @return List of conflicting leaves
+     */
+    public List<Leave> getConflictingLeaves() {
+        int[] indexes = conflictingLeaves.values().stream().flatMapToInt(Arrays::stream).sorted().toArray(); // Load order
+        return toLeaves(indexes);
+    }
+
+    /**
+     * Approve a leave application and deduct its days from the employee's balance.
+     * The days are reserved atomically before the status changes, so concurrent
+     * approvals cannot overdraw the balance.
      * 
      * @param employeeId The employee ID
      * @param startDate Start date of the leave
-     * @return true if successful, false if leave not found
+     * @param ledger Ledger holding the employee's leave balance
+     * @return true if successful, false if leave not found or insufficient leave days
      */
-    public boolean approveLeave(String employeeId, LocalDate startDate) {
-        for (Leave leave : leaves) {
-            if (leave.getEmployeeId().equals(employeeId) && 
-                leave.getStartDate().equals(startDate) &&
-                leave.getStatus().equals("PENDING")) {
-                
-                leave.setStatus("APPROVED");
-                return true;
-            }
+    public boolean approveLeave(String employeeId, LocalDate startDate, LeaveBalanceLedger ledger) {
+        int index = findPendingLeave(employeeId, startDate);
+        if (index < 0) {
+            return false;
+        }
+        
+        return approveLeave(index, ledger);
+    }
+
+    /**
+     * Approve many pending leaves concurrently. Balances are reserved per
+     * employee, so approvals for different employees proceed in parallel.
+     * 
+     * @param pendingLeaves The leaves to approve
+     * @param ledger Ledger holding the employees' leave balances
+     * @return Number of leaves approved
+     */
+    public int approveLeaves(List<Leave> pendingLeaves, LeaveBalanceLedger ledger) {
+        int[] indexes = pendingLeaves.stream()
+                .mapToInt(leave -> findPendingLeave(leave.getEmployeeId(), leave.getStartDate()))
+                .filter(index -> index >= 0)
+                .distinct()
+                .toArray();
+        return (int) Arrays.stream(indexes).parallel()
+                .filter(index -> approveLeave(index, ledger))
+                .count();
+    }
+
+    /**
+     * Approve a single pending leave against the ledger
+     * 
+     * @param index Index of the leave to approve
+     * @param ledger Ledger holding the employee's leave balance
+     * @return true if approved
+     */
+    private boolean approveLeave(int index, LeaveBalanceLedger ledger) {
+        String employeeId = leaves.getEmployeeId(index);
+        int days = leaves.getDuration(index);
+        if (!ledger.reserve(employeeId, days)) {
+            return false;
         }
-        return false;
+        
+        if (!leaves.compareAndSetStatus(index, LeaveStatus.PENDING, LeaveStatus.APPROVED)) {
+            ledger.release(employeeId, days); // Approved or rejected concurrently
+            return false;
+        }
+        
+        addLeaveDays(index);
+        return ledger.commit(employeeId, days);
     }
 
     /**
@@ -70,85 +248,287 @@ public class LeaveService {
      * @return true if successful, false if leave not found
      */
     public boolean rejectLeave(String employeeId, LocalDate startDate) {
-        for (Leave leave : leaves) {
-            if (leave.getEmployeeId().equals(employeeId) && 
-                leave.getStartDate().equals(startDate) &&
-                leave.getStatus().equals("PENDING")) {
-                
-                leave.setStatus("REJECTED");
-                return true;
-            }
+        int index = findPendingLeave(employeeId, startDate);
+        if (index < 0) {
+            return false;
+        }
+        
+        if (!leaves.compareAndSetStatus(index, LeaveStatus.PENDING, LeaveStatus.REJECTED)) {
+            return false;
         }
-        return false;
+        unindex(index, LeaveStatus.PENDING);
+        return true;
+    }
+
+    /**
+     * Find the pending leave of an employee starting on a given date
+     * 
+     * @param employeeId The employee ID
+     * @param startDate Start date of the leave
+     * @return Index of the pending leave, or -1 if not found
+     */
+    private int findPendingLeave(String employeeId, LocalDate startDate) {
+        DisjointIntervals employeeLeaves = activeLeavesByEmployee.get(employeeId);
+        if (employeeLeaves == null) {
+            return -1;
+        }
+        
+        long day = startDate.toEpochDay();
+        int index = employeeLeaves.findAnyOverlapping(day, day); // At most one, as active leaves never overlap
+        return index >= 0 && leaves.getStartDay(index) == day &&
+               leaves.getStatus(index) == LeaveStatus.PENDING ? index : -1;
+    }
+
+    /**
+     * Add a pending or approved leave to the interval indexes
+     * 
+     * @param index Index of the leave
+     */
+    private void index(int index) {
+        activeLeavesByEmployee.compute(leaves.getEmployeeId(index), (id, employeeLeaves) ->
+                (employeeLeaves == null ? DisjointIntervals.empty() : employeeLeaves)
+                        .with(leaves.getStartDay(index), leaves.getEndDay(index), index));
+        if (leaves.getStatus(index) == LeaveStatus.APPROVED) {
+            addLeaveDays(index);
+        }
+    }
+
+    private void addLeaveDays(int index) {
+        approvedLeaveDays.add(leaves.getEmployeeId(index),
+                LocalDate.ofEpochDay(leaves.getStartDay(index)), LocalDate.ofEpochDay(leaves.getEndDay(index)));
+    }
+
+    /**
+     * Remove a leave from the interval indexes
+     * 
+     * @param index Index of the leave
+     * @param status Status the leave had while it was indexed
+     */
+    private void unindex(int index, LeaveStatus status) {
+        String employeeId = leaves.getEmployeeId(index);
+        
+        // Changes for one employee are serialized by the map, not by a store-wide lock
+        activeLeavesByEmployee.computeIfPresent(employeeId, (id, employeeLeaves) -> {
+            DisjointIntervals remaining = employeeLeaves.without(leaves.getStartDay(index), index);
+            return remaining.isEmpty() ? null : remaining;
+        });
+        if (status == LeaveStatus.APPROVED) {
+            rebuildApprovedLeaveDays(employeeId, index);
+        }
+    }
+
+    /**
+     * Rebuild an employee's leave-day bitmap from their remaining approved
+     * leaves. Needed on removal because overlapping leaves share bits; only
+     * the employee's own intervals and flagged conflicts are visited.
+     * 
+     * @param employeeId The employee ID
+     * @param removedIndex Index of the leave being removed, which is skipped
+     */
+    private void rebuildApprovedLeaveDays(String employeeId, int removedIndex) {
+        LeaveDayIndex rebuilt = new LeaveDayIndex();
+        DisjointIntervals employeeLeaves = activeLeavesByEmployee.get(employeeId);
+        if (employeeLeaves != null) {
+            employeeLeaves.forEach(index -> addApprovedLeaveDays(rebuilt, index, removedIndex));
+        }
+        for (int index : conflictingLeaves.getOrDefault(employeeId, new int[0])) {
+            addApprovedLeaveDays(rebuilt, index, removedIndex);
+        }
+        approvedLeaveDays.replace(employeeId, rebuilt);
+    }
+
+    private void addApprovedLeaveDays(LeaveDayIndex target, int index, int removedIndex) {
+        if (index != removedIndex && leaves.getStatus(index) == LeaveStatus.APPROVED) {
+            target.add(leaves.getEmployeeId(index),
+                    LocalDate.ofEpochDay(leaves.getStartDay(index)), LocalDate.ofEpochDay(leaves.getEndDay(index)));
+        }
+    }
+
+    /**
+     * Get the bitmap index of approved leave days
+     * 
+     * @return Approved leave days per employee, each day counted once
+     */
+    public LeaveDayIndex getLeaveDayIndex() {
+        return approvedLeaveDays;
     }
 
     /**
      * Get all leaves
      * 
-     * @return List of all leaves
+     * @return Unmodifiable view of all leaves, in application order
      */
     public List<Leave> getAllLeaves() {
-        return leaves;
+        return new AbstractList<Leave>() {
+            @Override
+            public Leave get(int index) {
+                Objects.checkIndex(index, leaves.size());
+                return leaves.toLeave(index);
+            }
+
+            @Override
+            public int size() {
+                return leaves.size();
+            }
+        };
+    }
+
+    /**
+     * Stream all leaves in application order
+     * 
+     * @return Stream of leaves
+     */
+    public Stream<Leave> streamLeaves() {
+        return IntStream.range(0, leaves.size()).mapToObj(leaves::toLeave);
+    }
+
+    /**
+     * Get one page of leaves in application order
+     * 
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param pageSize Maximum number of leaves on the page
+     * @return The page of leaves, or an empty last page if the cursor is not valid
+     */
+    public Page<Leave> getLeavesPage(String cursor, int pageSize) {
+        int from = 0;
+        if (cursor != null) {
+            try {
+                from = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                from = -1;
+            }
+            if (from < 0) {
+                System.out.println("Invalid leave page cursor: " + cursor);
+                return new Page<>(new ArrayList<>(), null);
+            }
+        }
+        
+        int size = leaves.size();
+        from = Math.min(from, size);
+        int to = (int) Math.min((long) from + Math.max(pageSize, 0), size);
+        
+        List<Leave> items = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            items.add(leaves.toLeave(index));
+        }
+        return new Page<>(items, to < size ? String.valueOf(to) : null);
     }
 
     /**
      * Get leaves for a specific employee
      * 
      * @param employeeId The employee ID
-     * @return List of leaves for the employee
+     * @return List of leaves for the employee, in application order
      */
     public List<Leave> getLeavesByEmployeeId(String employeeId) {
-        List<Leave> employeeLeaves = new ArrayList<>();
-        
-        for (Leave leave : leaves) {
-            if (leave.getEmployeeId().equals(employeeId)) {
-                employeeLeaves.add(leave);
-            }
+        int[] indexes;
+        synchronized (leaves) {
+            indexes = leaves.indexesOf(employeeId);
         }
-        
-        return employeeLeaves;
+        return toLeaves(indexes);
     }
 
     /**
-     * Get the most recent leave application
+     * Get the most recent leave application of this session
      * 
-     * @return The most recent leave, or null if no leaves
+     * @return The most recent leave, or null if none applied this session
      */
     public Leave getMostRecentLeave() {
-        if (recentLeaves.isEmpty()) {
-            return null;
+        synchronized (leaves) {
+            if (recentCount == 0) {
+                return null;
+            }
+            return leaves.toLeave(recentLeaves[(recentEnd + recentLeaves.length - 1) % recentLeaves.length]);
         }
-        
-        return recentLeaves.peek();
     }
 
     /**
-     * Undo the most recent leave application
+     * Undo the most recent leave application of this session.
+     * The leave is cancelled first, so it can no longer be approved or
+     * rejected; if it was approved, its days are returned to the employee's
+     * balance. It is then removed from the store if it is still the last
+     * leave stored, and otherwise kept there as cancelled.
      * 
-     * @return The removed leave, or null if no leaves
+     * @param ledger Ledger holding the employee's leave balance
+     * @return The removed leave, or null if nothing left to undo
      */
-    public Leave undoRecentLeave() {
-        if (recentLeaves.isEmpty()) {
-            return null;
+    public Leave undoRecentLeave(LeaveBalanceLedger ledger) {
+        int index;
+        synchronized (leaves) {
+            if (recentCount == 0) {
+                return null;
+            }
+            recentEnd = (recentEnd + recentLeaves.length - 1) % recentLeaves.length;
+            recentCount--;
+            index = recentLeaves[recentEnd];
         }
         
-        Leave leave = recentLeaves.pop();
-        leaves.remove(leave);
+        Leave leave = leaves.toLeave(index);
+        LeaveStatus status;
+        do {
+            status = leaves.getStatus(index);
+        } while (!leaves.compareAndSetStatus(index, status, LeaveStatus.CANCELLED));
+        
+        if (status == LeaveStatus.PENDING || status == LeaveStatus.APPROVED) {
+            unindex(index, status);
+        }
+        if (status == LeaveStatus.APPROVED) {
+            ledger.refund(leave.getEmployeeId(), leaves.getDuration(index));
+        }
+        synchronized (leaves) {
+            if (index == leaves.size() - 1) {
+                leaves.removeLast();
+            }
+        }
         return leave;
     }
 
+    private List<Leave> toLeaves(int[] indexes) {
+        List<Leave> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(leaves.toLeave(index));
+        }
+        return result;
+    }
+
     /**
      * Load leaves from file
      */
     public void loadLeaves() {
         try (BufferedReader reader = new BufferedReader(new FileReader(PayrollConstants.LEAVES_FILE))) {
             String line;
+            int conflicts = 0;
             while ((line = reader.readLine()) != null) {
-                Leave leave = Leave.fromCsv(line);
-                leaves.add(leave);
-                recentLeaves.push(leave);
+                int index;
+                try {
+                    index = leaves.add(Leave.fromCsv(line));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipping leave record: " + e.getMessage());
+                    continue;
+                }
+                
+                LeaveStatus status = leaves.getStatus(index);
+                if (status == LeaveStatus.REJECTED || status == LeaveStatus.CANCELLED) {
+                    continue;
+                }
+                if (findOverlappingIndex(leaves.getEmployeeId(index), leaves.getStartDay(index), leaves.getEndDay(index)) >= 0) {
+                    int[] employeeConflicts = conflictingLeaves.getOrDefault(leaves.getEmployeeId(index), new int[0]);
+                    employeeConflicts = Arrays.copyOf(employeeConflicts, employeeConflicts.length + 1);
+                    employeeConflicts[employeeConflicts.length - 1] = index;
+                    conflictingLeaves.put(leaves.getEmployeeId(index), employeeConflicts);
+                    conflicts++;
+                    if (leaves.getStatus(index) == LeaveStatus.APPROVED) {
+                        // Its days are still on leave, but only counted once
+                        addLeaveDays(index);
+                    }
+                } else {
+                    index(index);
+                }
             }
             System.out.println("Loaded " + leaves.size() + " leave records.");
+            if (conflicts > 0) {
+                System.out.println("Flagged " + conflicts + " leave records that overlap an earlier leave of the same employee.");
+            }
         } catch (IOException e) {
             System.out.println("No existing leave data found or error reading file. Starting with empty leave records.");
         }
@@ -159,8 +539,8 @@ public class LeaveService {
      */
     public void saveLeaves() {
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(PayrollConstants.LEAVES_FILE))) {
-            for (Leave leave : leaves) {
-                writer.write(leave.toCsv());
+            for (int index = 0; index < leaves.size(); index++) {
+                writer.write(leaves.toLeave(index).toCsv());
                 writer.newLine();
             }
             System.out.println("Saved " + leaves.size() + " leave records.");
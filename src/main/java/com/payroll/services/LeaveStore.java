@@ -0,0 +1,234 @@
+package com.payroll.services;
+
+import com.payroll.models.Leave;
+import com.payroll.models.LeaveStatus;
+import com.payroll.models.LeaveType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LeaveStore keeps leave records column-wise in primitive arrays: an
+ * employee ordinal, start and end epoch days, and type and status bytes per
+ * leave. Employee IDs and reason texts are held once each in dictionaries.
+ * Leaves are addressed by their index in application order; Leave objects
+ * are only created on demand as snapshots. The indexes of each employee's
+ * leaves are also kept per employee ordinal, so one employee's leaves are
+ * found without scanning the store.
+ * 
+ * Appends and removals must be synchronized by the caller. Status bytes live
+ * in fixed-size chunks that never move when the store grows, and change by
+ * compare-and-set, so approvals and rejections need no lock.
+ */
+public class LeaveStore {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final LeaveType[] TYPES = LeaveType.values();
+    private static final LeaveStatus[] STATUSES = LeaveStatus.values();
+    private static final int STATUS_CHUNK_BITS = 12; // 4096 statuses per chunk
+    private static final int STATUS_CHUNK_MASK = (1 << STATUS_CHUNK_BITS) - 1;
+    private static final VarHandle STATUS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private int size;
+    private int[] employeeOrdinals;
+    private int[] startDays;
+    private int[] endDays;
+    private byte[] types;
+    private volatile byte[][] statusChunks;
+    private int[] reasonCodes;
+
+    private final Map<String, Integer> employeeOrdinalsById;
+    private String[] employeeIds;
+    private int[][] indexesByEmployee; // Leave indexes per employee ordinal, in application order
+    private int[] leaveCounts; // Number of leaves per employee ordinal
+    private final Map<String, Integer> reasonCodesByText;
+    private String[] reasons;
+
+    /**
+     * Constructor for LeaveStore
+     */
+    public LeaveStore() {
+        this.employeeOrdinals = new int[INITIAL_CAPACITY];
+        this.startDays = new int[INITIAL_CAPACITY];
+        this.endDays = new int[INITIAL_CAPACITY];
+        this.types = new byte[INITIAL_CAPACITY];
+        this.statusChunks = new byte[][] {new byte[1 << STATUS_CHUNK_BITS]};
+        this.reasonCodes = new int[INITIAL_CAPACITY];
+        this.employeeOrdinalsById = new HashMap<>();
+        this.employeeIds = new String[INITIAL_CAPACITY];
+        this.indexesByEmployee = new int[INITIAL_CAPACITY][];
+        this.leaveCounts = new int[INITIAL_CAPACITY];
+        this.reasonCodesByText = new HashMap<>();
+        this.reasons = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Append a leave
+     * 
+     * @param leave The leave
+     * @return Index of the stored leave
+     */
+    public int add(Leave leave) {
+        if (size == startDays.length) {
+            int capacity = size * 2;
+            employeeOrdinals = Arrays.copyOf(employeeOrdinals, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+            endDays = Arrays.copyOf(endDays, capacity);
+            types = Arrays.copyOf(types, capacity);
+            reasonCodes = Arrays.copyOf(reasonCodes, capacity);
+        }
+        
+        int index = size++;
+        int chunk = index >>> STATUS_CHUNK_BITS;
+        if (chunk == statusChunks.length) {
+            byte[][] chunks = Arrays.copyOf(statusChunks, chunk * 2);
+            for (int i = chunk; i < chunks.length; i++) {
+                chunks[i] = new byte[1 << STATUS_CHUNK_BITS];
+            }
+            statusChunks = chunks; // Existing chunks are shared, so concurrent status changes are kept
+        }
+        int ordinal = employeeOrdinal(leave.getEmployeeId());
+        employeeOrdinals[index] = ordinal;
+        if (leaveCounts[ordinal] == indexesByEmployee[ordinal].length) {
+            indexesByEmployee[ordinal] = Arrays.copyOf(indexesByEmployee[ordinal], leaveCounts[ordinal] * 2);
+        }
+        indexesByEmployee[ordinal][leaveCounts[ordinal]++] = index;
+        startDays[index] = (int) leave.getStartDate().toEpochDay();
+        endDays[index] = (int) leave.getEndDate().toEpochDay();
+        types[index] = (byte) leave.getLeaveTypeCode().ordinal();
+        setStatus(index, leave.getStatusCode());
+        reasonCodes[index] = reasonCode(leave.getReason());
+        return index;
+    }
+
+    /**
+     * Remove the most recently added leave
+     */
+    public void removeLast() {
+        if (size > 0) {
+            size--;
+            leaveCounts[employeeOrdinals[size]]--;
+        }
+    }
+
+    /**
+     * Change the status of a leave only if it still has the expected status
+     * 
+     * @param index Index of the leave
+     * @param expected The status the leave must have
+     * @param status The new status
+     * @return true if the status was changed
+     */
+    public boolean compareAndSetStatus(int index, LeaveStatus expected, LeaveStatus status) {
+        return STATUS.compareAndSet(statusChunks[index >>> STATUS_CHUNK_BITS], index & STATUS_CHUNK_MASK,
+                (byte) expected.ordinal(), (byte) status.ordinal());
+    }
+
+    /**
+     * Create a Leave snapshot of a stored leave
+     * 
+     * @param index Index of the leave
+     * @return A new Leave with the stored values
+     */
+    public Leave toLeave(int index) {
+        return new Leave(getEmployeeId(index), LocalDate.ofEpochDay(startDays[index]), LocalDate.ofEpochDay(endDays[index]),
+                getLeaveType(index), reasons[reasonCodes[index]], getStatus(index));
+    }
+
+    /**
+     * Get the ordinal assigned to an employee ID
+     * 
+     * @param employeeId The employee ID
+     * @return The ordinal, or -1 if the employee has no stored leave
+     */
+    public int ordinalOf(String employeeId) {
+        Integer ordinal = employeeOrdinalsById.get(employeeId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Get the indexes of an employee's leaves
+     * 
+     * @param employeeId The employee ID
+     * @return Indexes of the employee's leaves in application order
+     */
+    public int[] indexesOf(String employeeId) {
+        int ordinal = ordinalOf(employeeId);
+        return ordinal < 0 ? new int[0] : Arrays.copyOf(indexesByEmployee[ordinal], leaveCounts[ordinal]);
+    }
+
+    private int employeeOrdinal(String employeeId) {
+        Integer ordinal = employeeOrdinalsById.get(employeeId);
+        if (ordinal == null) {
+            ordinal = employeeOrdinalsById.size();
+            if (ordinal == employeeIds.length) {
+                employeeIds = Arrays.copyOf(employeeIds, ordinal * 2);
+                indexesByEmployee = Arrays.copyOf(indexesByEmployee, ordinal * 2);
+                leaveCounts = Arrays.copyOf(leaveCounts, ordinal * 2);
+            }
+            employeeIds[ordinal] = employeeId;
+            indexesByEmployee[ordinal] = new int[4];
+            employeeOrdinalsById.put(employeeId, ordinal);
+        }
+        return ordinal;
+    }
+
+    private int reasonCode(String reason) {
+        Integer code = reasonCodesByText.get(reason);
+        if (code == null) {
+            code = reasonCodesByText.size();
+            if (code == reasons.length) {
+                reasons = Arrays.copyOf(reasons, code * 2);
+            }
+            reasons[code] = reason;
+            reasonCodesByText.put(reason, code);
+        }
+        return code;
+    }
+
+    /**
+     * Getters and Setters by leave index
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getEmployeeOrdinal(int index) {
+        return employeeOrdinals[index];
+    }
+
+    public String getEmployeeId(int index) {
+        return employeeIds[employeeOrdinals[index]];
+    }
+
+    public int getStartDay(int index) {
+        return startDays[index];
+    }
+
+    public int getEndDay(int index) {
+        return endDays[index];
+    }
+
+    public int getDuration(int index) {
+        return endDays[index] - startDays[index] + 1;
+    }
+
+    public LeaveType getLeaveType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public LeaveStatus getStatus(int index) {
+        return STATUSES[(byte) STATUS.getAcquire(statusChunks[index >>> STATUS_CHUNK_BITS], index & STATUS_CHUNK_MASK)];
+    }
+
+    public void setStatus(int index, LeaveStatus status) {
+        STATUS.setRelease(statusChunks[index >>> STATUS_CHUNK_BITS], index & STATUS_CHUNK_MASK, (byte) status.ordinal());
+    }
+
+    public String getReason(int index) {
+        return reasons[reasonCodes[index]];
+    }
+}
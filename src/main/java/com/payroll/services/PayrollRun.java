@@ -0,0 +1,139 @@
+package com.payroll.services;
+
+import com.payroll.utils.PayrollConstants;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PayrollRun holds the checkpointed progress of a payroll run for one period.
+ * Employees are split into partitions of contiguous IDs; each partition
+ * records the last employee whose payslip was committed.
+ */
+public class PayrollRun {
+    private final YearMonth period;
+    private final int employeeCount;
+    private final List<Partition> partitions;
+    private String status;
+    private long journalLength; // Journal bytes up to the last commit record known to be on disk
+
+    /**
+     * Constructor for PayrollRun
+     * 
+     * @param period Pay period of the run
+     * @param employeeCount Number of employees when the run started
+     * @param status Status of the run
+     */
+    PayrollRun(YearMonth period, int employeeCount, String status) {
+        this.period = period;
+        this.employeeCount = employeeCount;
+        this.status = status;
+        this.partitions = new ArrayList<>();
+    }
+
+    /**
+     * Get the number of employees whose payslips were committed
+     * 
+     * @return Committed employee count
+     */
+    public int getCommittedCount() {
+        int committed = 0;
+        for (Partition partition : partitions) {
+            committed += partition.committedCount;
+        }
+        return committed;
+    }
+
+    /**
+     * Get the number of partitions that finished
+     * 
+     * @return Completed partition count
+     */
+    public int getCompletedPartitionCount() {
+        int completed = 0;
+        for (Partition partition : partitions) {
+            if (partition.completed) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Check if the run finished
+     * 
+     * @return true if every partition was committed and the salaries were saved
+     */
+    public boolean isCompleted() {
+        return status.equals(PayrollConstants.RUN_STATUS_COMPLETED);
+    }
+
+    /**
+     * Getters and Setters
+     */
+    public YearMonth getPeriod() {
+        return period;
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    void setStatus(String status) {
+        this.status = status;
+    }
+
+    long getJournalLength() {
+        return journalLength;
+    }
+
+    void setJournalLength(long journalLength) {
+        this.journalLength = journalLength;
+    }
+
+    List<Partition> getPartitions() {
+        return partitions;
+    }
+
+    public List<String> getPartitionSummaries() {
+        List<String> summaries = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            Partition partition = partitions.get(i);
+            summaries.add(String.format("Partition %d [From: %s, Last Committed: %s, Committed: %d, %s]",
+                    i, partition.firstId.isEmpty() ? "-" : partition.firstId,
+                    partition.lastCommittedId.isEmpty() ? "-" : partition.lastCommittedId,
+                    partition.committedCount, partition.completed ? "Done" : "Pending"));
+        }
+        return Collections.unmodifiableList(summaries);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Run [Period: %s, Status: %s, Committed: %d/%d, Partitions: %d/%d complete]",
+                period, status, getCommittedCount(), employeeCount, getCompletedPartitionCount(), partitions.size());
+    }
+
+    /**
+     * Progress of one partition: employees with IDs from firstId up to the
+     * next partition's firstId
+     */
+    static class Partition {
+        final String firstId; // Empty for the first partition, which has no lower bound
+        String lastCommittedId; // Empty until an employee is committed
+        int committedCount;
+        boolean completed;
+
+        Partition(String firstId, String lastCommittedId, int committedCount, boolean completed) {
+            this.firstId = firstId;
+            this.lastCommittedId = lastCommittedId;
+            this.committedCount = committedCount;
+            this.completed = completed;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.payroll.services;
+
+import com.payroll.models.Employee;
+import com.payroll.models.Salary;
+import com.payroll.utils.LeaveDayIndex;
+import com.payroll.utils.PayrollConstants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * PayrollRunManager runs monthly payroll in checkpointed chunks so an
+ * interrupted run can resume where it stopped.
+ * 
+ * The checkpoint file records the run and its partitions; it is written when
+ * the run starts and when it completes. Each chunk's payslips are appended to
+ * the run journal followed by a commit record for their partition, and synced
+ * to disk in one write, so progress costs one append per chunk however many
+ * partitions there are. On restart the journal is replayed into the salary
+ * ledger, which keeps one payslip per employee and period. Anything after the
+ * last commit record, such as uncommitted payslips or a line torn by a crash,
+ * is discarded and cut off the journal before the run appends to it again,
+ * and the run continues after the last committed employee of each partition. When every partition is done the salaries are saved once,
+ * and only if that succeeds is the run marked completed and the journal
+ * discarded.
+ */
+public class PayrollRunManager {
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String COMMIT_RECORD = "#COMMIT"; // Journal line: partition, last ID, committed count
+    private static final String DONE_RECORD = "#DONE"; // Journal line: partition
+
+    private PayrollService payrollService;
+    private EmployeeService employeeService;
+    private Map<YearMonth, PayrollRun> runs; // Known runs by period
+
+    /**
+     * Constructor for PayrollRunManager
+     * 
+     * @param payrollService Service storing the salary records
+     * @param employeeService Service holding the employees to pay
+     */
+    public PayrollRunManager(PayrollService payrollService, EmployeeService employeeService) {
+        this.payrollService = payrollService;
+        this.employeeService = employeeService;
+        this.runs = new TreeMap<>();
+    }
+
+    /**
+     * Load the checkpoints of earlier runs and restore the payslips committed
+     * by runs that did not finish. Must be called after salaries are loaded.
+     */
+    public void recoverRuns() {
+        File[] files = new File(PayrollConstants.PAYROLL_RUNS_DIR).listFiles((dir, name) -> name.endsWith(CHECKPOINT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        
+        for (File file : files) {
+            try {
+                PayrollRun run = readCheckpoint(file);
+                if (!run.isCompleted()) {
+                    int restored = replayJournal(run);
+                    System.out.println("Payroll run for " + run.getPeriod() + " was interrupted after " +
+                            run.getCommittedCount() + " of " + run.getEmployeeCount() + " employees (" +
+                            restored + " payslips restored). Process salary for that month to resume it.");
+                }
+                // Only a fully replayed run is resumed; otherwise the period starts a new run
+                runs.put(run.getPeriod(), run);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Skipping unreadable payroll run checkpoint " + file.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run payroll for a period, resuming an interrupted run for it if there is one
+     * 
+     * @param period Pay period to process
+     * @param leaveDayIndex Approved leave days per employee
+     * @return The run, completed unless a checkpoint or the salaries could not be written
+     */
+    public PayrollRun runPayroll(YearMonth period, LeaveDayIndex leaveDayIndex) {
+        List<Employee> employees = new ArrayList<>(employeeService.getEmployees());
+        employees.sort(Comparator.comparing(Employee::getId));
+        
+        PayrollRun run = runs.get(period);
+        try {
+            if (run == null || run.isCompleted()) {
+                run = startRun(period, employees);
+            } else {
+                System.out.println("Resuming payroll run for " + period + " after " + run.getCommittedCount() + " employees.");
+            }
+            
+            List<PayrollRun.Partition> partitions = run.getPartitions();
+            try (FileOutputStream out = new FileOutputStream(journalFile(period), true);
+                 BufferedWriter journal = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                // Drop anything written after the last commit record, e.g. by a failed chunk
+                if (out.getChannel().size() > run.getJournalLength()) {
+                    out.getChannel().truncate(run.getJournalLength());
+                }
+                
+                int employeeIndex = 0;
+                for (int p = 0; p < partitions.size(); p++) {
+                    PayrollRun.Partition partition = partitions.get(p);
+                    String nextFirstId = p + 1 < partitions.size() ? partitions.get(p + 1).firstId : null;
+                    
+                    // Employees of this partition not yet committed
+                    List<Employee> pending = new ArrayList<>();
+                    while (employeeIndex < employees.size() &&
+                           (nextFirstId == null || employees.get(employeeIndex).getId().compareTo(nextFirstId) < 0)) {
+                        Employee employee = employees.get(employeeIndex++);
+                        if (!partition.completed && employee.getId().compareTo(partition.lastCommittedId) > 0) {
+                            pending.add(employee);
+                        }
+                    }
+                    if (partition.completed) {
+                        continue;
+                    }
+                    
+                    for (int from = 0; from < pending.size(); from += PayrollConstants.RUN_CHECKPOINT_INTERVAL) {
+                        List<Employee> chunk = pending.subList(from, Math.min(from + PayrollConstants.RUN_CHECKPOINT_INTERVAL, pending.size()));
+                        List<Salary> payslips = payrollService.processSalaries(chunk, leaveDayIndex,
+                                period.getMonthValue(), period.getYear());
+                        String lastId = chunk.get(chunk.size() - 1).getId();
+                        commitToJournal(journal, out, p, lastId, partition.committedCount + chunk.size(), payslips);
+                        run.setJournalLength(out.getChannel().size());
+                        
+                        partition.lastCommittedId = lastId;
+                        partition.committedCount += chunk.size();
+                    }
+                    partition.completed = true;
+                    // Not synced: if lost, the partition is found fully committed on resume
+                    journal.write(DONE_RECORD + "," + p);
+                    journal.newLine();
+                }
+            }
+            
+            if (!payrollService.saveSalaries()) {
+                // The journal still holds the payslips, so the run can be completed later
+                System.out.println("Payroll run for " + period + " stays in progress because salaries could not be saved.");
+                return run;
+            }
+            run.setStatus(PayrollConstants.RUN_STATUS_COMPLETED);
+            writeCheckpoint(run);
+            Files.deleteIfExists(journalFile(period).toPath());
+        } catch (IOException e) {
+            System.out.println("Error checkpointing payroll run for " + period + ": " + e.getMessage());
+        }
+        return run;
+    }
+
+    /**
+     * Get the status of the run for a period
+     * 
+     * @param period The pay period
+     * @return The run, or null if payroll was never run through the manager for it
+     */
+    public PayrollRun getRunStatus(YearMonth period) {
+        return runs.get(period);
+    }
+
+    /**
+     * Get all known runs
+     * 
+     * @return Unmodifiable runs ordered by period
+     */
+    public Collection<PayrollRun> getRuns() {
+        return Collections.unmodifiableCollection(runs.values());
+    }
+
+    /**
+     * Start a new run, splitting the employees into partitions of contiguous IDs
+     * 
+     * @param period Pay period of the run
+     * @param employees Employees sorted by ID
+     * @return The new run
+     * @throws IOException if its checkpoint cannot be written
+     */
+    private PayrollRun startRun(YearMonth period, List<Employee> employees) throws IOException {
+        PayrollRun run = new PayrollRun(period, employees.size(), PayrollConstants.RUN_STATUS_IN_PROGRESS);
+        run.getPartitions().add(new PayrollRun.Partition("", "", 0, false));
+        for (int i = PayrollConstants.RUN_PARTITION_SIZE; i < employees.size(); i += PayrollConstants.RUN_PARTITION_SIZE) {
+            run.getPartitions().add(new PayrollRun.Partition(employees.get(i).getId(), "", 0, false));
+        }
+        
+        Files.createDirectories(new File(PayrollConstants.PAYROLL_RUNS_DIR).toPath());
+        Files.deleteIfExists(journalFile(period).toPath());
+        writeCheckpoint(run);
+        runs.put(period, run);
+        return run;
+    }
+
+    /**
+     * Append committed payslips and the commit record of their partition to
+     * the run journal, and force them to disk
+     * 
+     * @param journal Writer over the run journal
+     * @param out Stream under the writer, used to sync
+     * @param partitionIndex Index of the partition
+     * @param lastId ID of the last employee committed
+     * @param committedCount Employees of the partition committed so far
+     * @param payslips The payslips
+     * @throws IOException if the journal cannot be written
+     */
+    private void commitToJournal(BufferedWriter journal, FileOutputStream out, int partitionIndex,
+                                 String lastId, int committedCount, List<Salary> payslips) throws IOException {
+        for (Salary payslip : payslips) {
+            journal.write(payslip.toCsv());
+            journal.newLine();
+        }
+        journal.write(String.format("%s,%d,%s,%d", COMMIT_RECORD, partitionIndex, lastId, committedCount));
+        journal.newLine();
+        journal.flush();
+        out.getFD().sync();
+    }
+
+    /**
+     * Restore the progress and payslips in the journal of an interrupted run.
+     * Payslips are restored only once the commit record that follows them
+     * has been read. Replay stops at the first line that is incomplete or
+     * cannot be parsed, and the run's journal length is set to the end of
+     * the last commit or done record so the rest is cut off on resume.
+     * 
+     * @param run The run, whose partitions are advanced to the committed progress
+     * @return Number of payslips restored
+     * @throws IOException if the journal cannot be read
+     */
+    private int replayJournal(PayrollRun run) throws IOException {
+        File journal = journalFile(run.getPeriod());
+        if (!journal.exists()) {
+            return 0;
+        }
+        
+        List<PayrollRun.Partition> partitions = run.getPartitions();
+        List<Salary> uncommitted = new ArrayList<>();
+        int restored = 0;
+        long offset = 0;
+        long committedOffset = 0;
+        byte[] line = new byte[256];
+        int length = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(journal))) {
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b != '\n') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = (byte) b;
+                    continue;
+                }
+                
+                String text = new String(line, 0, length, StandardCharsets.UTF_8).trim();
+                length = 0;
+                try {
+                    if (text.startsWith(COMMIT_RECORD + ",")) {
+                        String[] parts = text.split(",", -1);
+                        PayrollRun.Partition partition = partitions.get(Integer.parseInt(parts[1]));
+                        int committedCount = Integer.parseInt(parts[3]);
+                        partition.lastCommittedId = parts[2];
+                        partition.committedCount = committedCount;
+                        for (Salary salary : uncommitted) {
+                            Employee employee = employeeService.getEmployeeById(salary.getEmployeeId());
+                            payrollService.restoreSalary(salary,
+                                    employee != null ? employee.getDepartment() : PayrollConstants.UNKNOWN_DEPARTMENT);
+                        }
+                        restored += uncommitted.size();
+                        uncommitted.clear();
+                        committedOffset = offset;
+                    } else if (text.startsWith(DONE_RECORD + ",")) {
+                        partitions.get(Integer.parseInt(text.substring(DONE_RECORD.length() + 1))).completed = true;
+                        committedOffset = offset;
+                    } else {
+                        uncommitted.add(Salary.fromCsv(text));
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Payroll run journal for " + run.getPeriod() + " is damaged after byte " +
+                            committedOffset + "; discarding the rest: " + e.getMessage());
+                    break;
+                }
+            }
+        }
+        run.setJournalLength(committedOffset);
+        return restored;
+    }
+
+    /**
+     * Write a run checkpoint atomically: a temporary file is synced, then
+     * renamed over the previous checkpoint
+     * 
+     * @param run The run
+     * @throws IOException if the checkpoint cannot be written
+     */
+    private void writeCheckpoint(PayrollRun run) throws IOException {
+        File target = checkpointFile(run.getPeriod());
+        File temp = new File(target.getPath() + ".tmp");
+        
+        try (FileOutputStream out = new FileOutputStream(temp);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(String.format("RUN,%s,%s,%d", run.getPeriod(), run.getStatus(), run.getEmployeeCount()));
+            writer.newLine();
+            for (PayrollRun.Partition partition : run.getPartitions()) {
+                writer.write(String.format("PARTITION,%s,%s,%d,%b", partition.firstId, partition.lastCommittedId,
+                        partition.committedCount, partition.completed));
+                writer.newLine();
+            }
+            writer.flush();
+            out.getFD().sync();
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a run checkpoint
+     * 
+     * @param file The checkpoint file
+     * @return The run
+     * @throws IOException if the file cannot be read
+     */
+    private PayrollRun readCheckpoint(File file) throws IOException {
+        PayrollRun run = null;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",", -1);
+                if (parts[0].equals("RUN")) {
+                    run = new PayrollRun(YearMonth.parse(parts[1]), Integer.parseInt(parts[3]), parts[2]);
+                } else if (parts[0].equals("PARTITION") && run != null) {
+                    run.getPartitions().add(new PayrollRun.Partition(parts[1], parts[2],
+                            Integer.parseInt(parts[3]), Boolean.parseBoolean(parts[4])));
+                }
+            }
+        }
+        if (run == null || run.getPartitions().isEmpty()) {
+            throw new IOException("missing run header or partitions");
+        }
+        return run;
+    }
+
+    private static File checkpointFile(YearMonth period) {
+        return new File(PayrollConstants.PAYROLL_RUNS_DIR, period + CHECKPOINT_SUFFIX);
+    }
+
+    private static File journalFile(YearMonth period) {
+        return new File(PayrollConstants.PAYROLL_RUNS_DIR, period + JOURNAL_SUFFIX);
+    }
+}
@@ -0,0 +1,114 @@
+package com.payroll.services;
+
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.TaxTable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PayrollScenario describes a what-if change to payroll inputs.
+ * Changes left unset keep the live configuration; basic salary multipliers
+ * for a department take precedence over the company-wide multiplier.
+ */
+public class PayrollScenario {
+    private final String name;
+    private double basicMultiplier;
+    private Map<String, Double> departmentMultipliers;
+    private TaxTable taxTable;
+    private AllowanceRules allowanceRules;
+
+    /**
+     * Constructor for PayrollScenario
+     *
+     * @param name Name of the scenario, e.g. "+5% Engineering"
+     */
+    public PayrollScenario(String name) {
+        this.name = name;
+        this.basicMultiplier = 1.0;
+        this.departmentMultipliers = new HashMap<>();
+    }
+
+    /**
+     * Scale the basic salary of every employee
+     *
+     * @param multiplier Factor applied to basic salary, e.g. 1.05 for +5%
+     * @return This scenario
+     */
+    public PayrollScenario withBasicMultiplier(double multiplier) {
+        this.basicMultiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * Scale the basic salary of the employees of one department
+     *
+     * @param department The department
+     * @param multiplier Factor applied to basic salary, e.g. 1.05 for +5%
+     * @return This scenario
+     */
+    public PayrollScenario withBasicMultiplier(String department, double multiplier) {
+        this.departmentMultipliers.put(department, multiplier);
+        return this;
+    }
+
+    /**
+     * Tax with a different table
+     *
+     * @param taxTable The tax table to apply
+     * @return This scenario
+     */
+    public PayrollScenario withTaxTable(TaxTable taxTable) {
+        this.taxTable = taxTable;
+        return this;
+    }
+
+    /**
+     * Compute allowances with different rules
+     *
+     * @param allowanceRules The allowance rules to apply
+     * @return This scenario
+     */
+    public PayrollScenario withAllowanceRules(AllowanceRules allowanceRules) {
+        this.allowanceRules = allowanceRules;
+        return this;
+    }
+
+    /**
+     * Get the basic salary multiplier of a department
+     *
+     * @param department The department
+     * @return The department's multiplier, or the company-wide one if none is set
+     */
+    double basicMultiplierFor(String department) {
+        Double multiplier = departmentMultipliers.get(department);
+        return multiplier != null ? multiplier : basicMultiplier;
+    }
+
+    /**
+     * Get the tax table of the scenario
+     *
+     * @param liveTable Table to use if the scenario does not override it
+     * @return The tax table to apply
+     */
+    TaxTable taxTableOr(TaxTable liveTable) {
+        return taxTable != null ? taxTable : liveTable;
+    }
+
+    /**
+     * Get the allowance rules of the scenario
+     *
+     * @param liveRules Rules to use if the scenario does not override them
+     * @return The allowance rules to apply
+     */
+    AllowanceRules allowanceRulesOr(AllowanceRules liveRules) {
+        return allowanceRules != null ? allowanceRules : liveRules;
+    }
+
+    /**
+     * Getters
+     */
+    public String getName() {
+        return name;
+    }
+}
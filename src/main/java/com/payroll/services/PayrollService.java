@@ -2,51 +2,176 @@ package com.payroll.services;
 
 import com.payroll.models.Employee;
 import com.payroll.models.Leave;
+import com.payroll.models.LeaveStatus;
+import com.payroll.models.PayrollTotals;
+import com.payroll.models.PayslipDiff;
 import com.payroll.models.Salary;
+import com.payroll.utils.BusinessCalendar;
+import com.payroll.utils.IntQueue;
+import com.payroll.utils.LeaveDayIndex;
+import com.payroll.utils.LongIntMap;
 import com.payroll.utils.PayrollConstants;
+import com.payroll.utils.QuantileSketch;
+import com.payroll.utils.TaxTable;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.LinkedList;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
 
 /**
  * PayrollService provides methods for managing salary processing
  */
 public class PayrollService {
-    private List<Salary> salaries;
-    private Map<String, Queue<Salary>> pendingSalaries; // Queue for each employee
+    private SalaryStore salaries; // Off-heap salary ledger; records hold their rollup department
+    private Map<String, IntQueue> pendingSalaries; // Queue of ledger positions for each employee
+    private LongIntMap salaryPositions; // Position in salaries of each employee-period, see periodKey
+    private Map<String, Map<YearMonth, PayrollTotals>> departmentRollups; // Totals per department and month
+    private Map<String, Map<Integer, PayrollTotals>> yearToDateTotals; // Totals per employee and year
     private FileService fileService;
 
     /**
      * Constructor for PayrollService
      */
     public PayrollService() {
-        this.salaries = new ArrayList<>();
+        this.salaries = new SalaryStore();
         this.pendingSalaries = new HashMap<>();
+        this.salaryPositions = new LongIntMap();
+        this.departmentRollups = new HashMap<>();
+        this.yearToDateTotals = new HashMap<>();
         this.fileService = new FileService();
     }
 
     /**
      * Process salaries for all employees
      * 
-     * @param employees List of employees
+     * @param employees Employees to process
      * @param leaves List of leaves
      * @param month Month to process
      * @param year Year to process
+     * @return The salary records produced, in employee order
      */
-    public void processSalaries(List<Employee> employees, List<Leave> leaves, int month, int year) {
-        for (Employee employee : employees) {
-            processSalary(employee, leaves, month, year);
+    public List<Salary> processSalaries(Collection<Employee> employees, List<Leave> leaves, int month, int year) {
+        return processSalaries(employees, buildLeaveDayIndex(leaves), month, year);
+    }
+
+    /**
+     * Process salaries for all employees using a prebuilt leave-day index
+     * 
+     * @param employees Employees to process
+     * @param leaveDayIndex Approved leave days per employee
+     * @param month Month to process
+     * @param year Year to process
+     * @return The salary records produced, in employee order; employees without
+     *         compensation in the month are skipped
+     */
+    public List<Salary> processSalaries(Collection<Employee> employees, LeaveDayIndex leaveDayIndex, int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        LocalDate asOf = period.atEndOfMonth();
+        Employee[] batch = employees.stream()
+                .filter(employee -> employee.isCompensatedOn(asOf))
+                .toArray(Employee[]::new);
+        int[] leaveDays = new int[batch.length];
+        double[] grossSalaries = new double[batch.length];
+        double[] taxAmounts = new double[batch.length];
+        BusinessCalendar calendar = BusinessCalendar.getDefault();
+        
+        for (int i = 0; i < batch.length; i++) {
+            leaveDays[i] = leaveDayIndex.countWorkingDays(batch[i].getId(), period, calendar);
+            grossSalaries[i] = calculateGrossSalary(batch[i], leaveDays[i], period, calendar);
         }
+        
+        // Tax for the whole run in one pass over the compiled bracket table
+        TaxTable.getDefault().taxFor(grossSalaries, taxAmounts);
+        
+        List<Salary> processed = new ArrayList<>(batch.length);
+        for (int i = 0; i < batch.length; i++) {
+            processed.add(recordSalary(batch[i], leaveDays[i], grossSalaries[i], taxAmounts[i], month, year));
+        }
+        return processed;
+    }
+
+    /**
+     * Process salaries for every month of a range, e.g. to backfill history
+     * 
+     * @param employees Employees to process
+     * @param leaves List of leaves
+     * @param from First month to process
+     * @param to Last month to process (inclusive)
+     * @return Number of salary records produced
+     */
+    public int processSalaryRange(Collection<Employee> employees, List<Leave> leaves, YearMonth from, YearMonth to) {
+        return processSalaryRange(employees, buildLeaveDayIndex(leaves), from, to);
+    }
+
+    /**
+     * Process salaries for every month of a range using a prebuilt leave-day index.
+     * Months are processed one at a time into arrays sized to the employee list
+     * and reused for every month, an employee is skipped for months before their
+     * first compensation, and the results are saved in a single write.
+     * 
+     * @param employees Employees to process
+     * @param leaveDayIndex Approved leave days per employee
+     * @param from First month to process
+     * @param to Last month to process (inclusive)
+     * @return Number of salary records produced
+     */
+    public int processSalaryRange(Collection<Employee> employees, LeaveDayIndex leaveDayIndex, YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            System.out.println("Range end " + to + " is before range start " + from + ".");
+            return 0;
+        }
+        
+        BusinessCalendar calendar = BusinessCalendar.getDefault();
+        Employee[] batch = employees.toArray(new Employee[0]);
+        Employee[] employed = new Employee[batch.length];
+        int[] leaveDays = new int[batch.length];
+        double[] grossSalaries = new double[batch.length];
+        double[] taxAmounts = new double[batch.length];
+        int count = 0;
+        
+        for (YearMonth period = from; !period.isAfter(to); period = period.plusMonths(1)) {
+            int size = 0;
+            for (Employee employee : batch) {
+                if (!employee.isCompensatedOn(period.atEndOfMonth())) {
+                    continue; // Not employed yet
+                }
+                employed[size] = employee;
+                leaveDays[size] = leaveDayIndex.countWorkingDays(employee.getId(), period, calendar);
+                grossSalaries[size] = calculateGrossSalary(employee, leaveDays[size], period, calendar);
+                size++;
+            }
+            
+            TaxTable.getDefault().taxFor(grossSalaries, taxAmounts, size);
+            
+            for (int i = 0; i < size; i++) {
+                recordSalary(employed[i], leaveDays[i], grossSalaries[i], taxAmounts[i],
+                        period.getMonthValue(), period.getYear());
+            }
+            count += size;
+        }
+        
+        saveSalaries();
+        return count;
     }
 
     /**
@@ -57,29 +182,77 @@ public class PayrollService {
      * @param month Month to process
      * @param year Year to process
      */
-    private void processSalary(Employee employee, List<Leave> leaves, int month, int year) {
-        // Calculate leave days for the month
-        int leaveDays = calculateLeaveDays(employee.getId(), leaves, month, year);
+    public void processSalary(Employee employee, List<Leave> leaves, int month, int year) {
+        processSalary(employee, buildLeaveDayIndex(leaves), month, year);
+    }
+
+    /**
+     * Process salary for a single employee using a prebuilt leave-day index
+     * 
+     * @param employee The employee
+     * @param leaveDayIndex Approved leave days per employee
+     * @param month Month to process
+     * @param year Year to process
+     */
+    public void processSalary(Employee employee, LeaveDayIndex leaveDayIndex, int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        BusinessCalendar calendar = BusinessCalendar.getDefault();
+        if (!employee.isCompensatedOn(period.atEndOfMonth())) {
+            System.out.println("Employee " + employee.getId() + " has no compensation for " + period + ".");
+            return;
+        }
+        
+        // Calculate working leave days for the month
+        int leaveDays = leaveDayIndex.countWorkingDays(employee.getId(), period, calendar);
+        
+        double grossSalary = calculateGrossSalary(employee, leaveDays, period, calendar);
+        double taxAmount = TaxTable.getDefault().taxFor(grossSalary);
+        recordSalary(employee, leaveDays, grossSalary, taxAmount, month, year);
+    }
+
+    /**
+     * Calculate an employee's gross salary for a month after the leave deduction,
+     * using the compensation in effect at the end of the month
+     * 
+     * @param employee The employee
+     * @param leaveDays Working leave days taken in the month
+     * @param period Month to process
+     * @param calendar Calendar defining the working days
+     * @return Gross salary
+     */
+    private double calculateGrossSalary(Employee employee, int leaveDays, YearMonth period, BusinessCalendar calendar) {
+        LocalDate asOf = period.atEndOfMonth();
         
         // Calculate working days in the month
-        int totalDaysInMonth = YearMonth.of(year, month).lengthOfMonth();
+        int workingDaysInMonth = calendar.workingDaysIn(period);
         
         // Calculate deduction for leave days (if any)
         double leaveDeduction = 0;
-        if (leaveDays > 0) {
-            leaveDeduction = (employee.getBasicSalary() / totalDaysInMonth) * leaveDays;
+        if (leaveDays > 0 && workingDaysInMonth > 0) {
+            leaveDeduction = (employee.getBasicSalaryAsOf(asOf) / workingDaysInMonth) * leaveDays;
         }
         
-        // Calculate salary components
-        double basicSalary = employee.getBasicSalary();
-        double grossSalary = employee.calculateGrossSalary() - leaveDeduction;
-        double taxAmount = employee.calculateTax(grossSalary);
+        return employee.calculateGrossSalary(asOf) - leaveDeduction;
+    }
+
+    /**
+     * Create and store the salary record of an employee for a month
+     * 
+     * @param employee The employee
+     * @param leaveDays Leave days taken in the month
+     * @param grossSalary Gross salary after leave deduction
+     * @param taxAmount Tax on the gross salary
+     * @param month Month to process
+     * @param year Year to process
+     * @return The stored salary record
+     */
+    private Salary recordSalary(Employee employee, int leaveDays, double grossSalary, double taxAmount, int month, int year) {
         double netSalary = grossSalary - taxAmount;
         
         // Create salary record
         Salary salary = new Salary(
                 employee.getId(),
-                basicSalary,
+                employee.getBasicSalaryAsOf(YearMonth.of(year, month).atEndOfMonth()),
                 grossSalary,
                 taxAmount,
                 netSalary,
@@ -88,38 +261,447 @@ public class PayrollService {
                 leaveDays
         );
         
-        // Add to salaries list
-        salaries.add(salary);
+        storeSalary(salary, employee.getDepartment(), true);
+        return salary;
+    }
+
+    /**
+     * Restore a salary record committed by an interrupted payroll run.
+     * Replaces any record for the same employee and period, so a payslip
+     * is never held twice.
+     * 
+     * @param salary The salary record
+     * @param department Department to roll the salary up under
+     */
+    public void restoreSalary(Salary salary, String department) {
+        storeSalary(salary, department, true);
+    }
+
+    /**
+     * Store a salary record, replacing any earlier record for the same employee and period,
+     * and keep the department rollups up to date
+     * 
+     * @param salary The salary record
+     * @param department Department to roll the salary up under, or null to skip the rollups
+     * @param updateYearToDate true to apply the change to the year-to-date totals
+     */
+    private void storeSalary(Salary salary, String department, boolean updateYearToDate) {
+        int position = positionOf(salary.getEmployeeId(), salary.getMonth(), salary.getYear());
+        
+        if (position < 0) {
+            position = salaries.add(salary, department);
+            salaryPositions.put(periodKey(salaries.getEmployeeOrdinal(position), salary.getMonth(), salary.getYear()), position);
+        } else {
+            IntQueue queue = pendingSalaries.get(salary.getEmployeeId());
+            if (queue != null) {
+                queue.remove(position);
+            }
+            
+            String replacedDepartment = salaries.getDepartment(position);
+            if (replacedDepartment != null) {
+                rollupFor(replacedDepartment, salary.getMonth(), salary.getYear()).subtract(
+                        salaries.getGrossSalary(position), salaries.getTaxAmount(position), salaries.getNetSalary(position));
+            }
+            if (updateYearToDate) {
+                yearToDateFor(salary.getEmployeeId(), salary.getYear()).subtract(
+                        salaries.getGrossSalary(position), salaries.getTaxAmount(position), salaries.getNetSalary(position));
+            }
+            salaries.set(position, salary, department);
+        }
+        
+        if (updateYearToDate) {
+            yearToDateFor(salary.getEmployeeId(), salary.getYear()).add(salary);
+        }
+        
+        if (department != null) {
+            rollupFor(department, salary.getMonth(), salary.getYear()).add(salary);
+        }
         
         // Add to pending salaries queue
-        if (!pendingSalaries.containsKey(employee.getId())) {
-            pendingSalaries.put(employee.getId(), new LinkedList<>());
+        pendingSalaries.computeIfAbsent(salary.getEmployeeId(), id -> new IntQueue()).add(position);
+    }
+
+    /**
+     * Get the rollup for a department and month, creating it if needed
+     * 
+     * @param department The department
+     * @param month Month of the rollup
+     * @param year Year of the rollup
+     * @return The mutable rollup totals
+     */
+    private PayrollTotals rollupFor(String department, int month, int year) {
+        return departmentRollups
+                .computeIfAbsent(department, d -> new HashMap<>())
+                .computeIfAbsent(YearMonth.of(year, month), ym -> new PayrollTotals());
+    }
+
+    /**
+     * Get the year-to-date totals of an employee, creating them if needed
+     * 
+     * @param employeeId The employee ID
+     * @param year The year
+     * @return The mutable year-to-date totals
+     */
+    private PayrollTotals yearToDateFor(String employeeId, int year) {
+        return yearToDateTotals
+                .computeIfAbsent(employeeId, id -> new HashMap<>())
+                .computeIfAbsent(year, y -> new PayrollTotals());
+    }
+
+    /**
+     * Build the key identifying an employee's salary for a period: the
+     * employee's ledger ordinal in the high half, the month number in the low half
+     * 
+     * @param ordinal Ledger ordinal of the employee
+     * @param month Month of the period
+     * @param year Year of the period
+     * @return Key for the employee-period
+     */
+    private static long periodKey(int ordinal, int month, int year) {
+        return (long) ordinal << 32 | (year * 12L + month - 1);
+    }
+
+    /**
+     * Find the ledger position of an employee's salary for a period
+     * 
+     * @param employeeId The employee ID
+     * @param month Month of the period
+     * @param year Year of the period
+     * @return The position, or -1 if there is no salary for the period
+     */
+    private int positionOf(String employeeId, int month, int year) {
+        int ordinal = salaries.ordinalOf(employeeId);
+        return ordinal < 0 ? -1 : salaryPositions.get(periodKey(ordinal, month, year));
+    }
+
+    /**
+     * Get the department a stored salary was rolled up under
+     * 
+     * @param position Position of the salary in getAllSalaries()
+     * @return The department, or null if the salary has not been rolled up yet
+     */
+    public String getSalaryDepartment(int position) {
+        return salaries.getDepartment(position);
+    }
+
+    /**
+     * Get payroll totals for a department and month
+     * 
+     * @param department The department
+     * @param month Month of the report
+     * @param year Year of the report
+     * @return Totals for the department and month (empty if none processed)
+     */
+    public PayrollTotals getDepartmentTotals(String department, int month, int year) {
+        Map<YearMonth, PayrollTotals> months = departmentRollups.get(department);
+        if (months == null) {
+            return new PayrollTotals();
         }
-        pendingSalaries.get(employee.getId()).add(salary);
+        
+        PayrollTotals totals = months.get(YearMonth.of(year, month));
+        return totals == null ? new PayrollTotals() : totals.copy();
     }
 
     /**
-     * Calculate leave days for an employee in a specific month
+     * Get payroll totals of every department for a month
+     * 
+     * @param month Month of the report
+     * @param year Year of the report
+     * @return Totals by department, sorted by department name
+     */
+    public Map<String, PayrollTotals> getDepartmentReport(int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        Map<String, PayrollTotals> report = new TreeMap<>();
+        
+        for (Map.Entry<String, Map<YearMonth, PayrollTotals>> entry : departmentRollups.entrySet()) {
+            PayrollTotals totals = entry.getValue().get(period);
+            if (totals != null && !totals.isEmpty()) {
+                report.put(entry.getKey(), totals.copy());
+            }
+        }
+        
+        return report;
+    }
+
+    /**
+     * Get year-to-date gross, tax and net for an employee
      * 
      * @param employeeId The employee ID
+     * @param year The year
+     * @return Totals of all salaries processed for the year (empty if none)
+     */
+    public PayrollTotals getYearToDateTotals(String employeeId, int year) {
+        Map<Integer, PayrollTotals> years = yearToDateTotals.get(employeeId);
+        if (years == null) {
+            return new PayrollTotals();
+        }
+        
+        PayrollTotals totals = years.get(year);
+        return totals == null ? new PayrollTotals() : totals.copy();
+    }
+
+    /**
+     * Get year-end statements for all employees in a single pass over the accumulators
+     * 
+     * @param year The year
+     * @return Year totals by employee ID, sorted by employee ID
+     */
+    public Map<String, PayrollTotals> getYearEndStatements(int year) {
+        Map<String, PayrollTotals> statements = new TreeMap<>();
+        
+        for (Map.Entry<String, Map<Integer, PayrollTotals>> entry : yearToDateTotals.entrySet()) {
+            PayrollTotals totals = entry.getValue().get(year);
+            if (totals != null && !totals.isEmpty()) {
+                statements.put(entry.getKey(), totals.copy());
+            }
+        }
+        
+        return statements;
+    }
+
+    /**
+     * Get the highest net earners for a month.
+     * Uses a min-heap bounded to n entries, so memory does not grow with the ledger.
+     * 
+     * @param month Month to query
+     * @param year Year to query
+     * @param n Number of salaries to return
+     * @return Up to n salaries, highest net salary first
+     */
+    public List<Salary> getTopNetEarners(int month, int year, int n) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        
+        Comparator<Integer> byNet = Comparator.comparingDouble(salaries::getNetSalary);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(n, byNet);
+        
+        for (int i = 0; i < salaries.size(); i++) {
+            if (salaries.getMonth(i) != month || salaries.getYear(i) != year) {
+                continue;
+            }
+            if (heap.size() < n) {
+                heap.add(i);
+            } else if (salaries.getNetSalary(i) > salaries.getNetSalary(heap.peek())) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        
+        List<Integer> positions = new ArrayList<>(heap);
+        positions.sort(Collections.reverseOrder(byNet));
+        List<Salary> top = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            top.add(salaries.get(position));
+        }
+        return top;
+    }
+
+    /**
+     * Get gross salary percentiles for every department in a month.
+     * Each department is summarised by a fixed-size QuantileSketch, which is
+     * exact for small departments and within 1% relative error for large ones.
+     * 
+     * @param month Month to query
+     * @param year Year to query
+     * @param quantiles Quantiles between 0 and 1 (e.g. 0.5, 0.9, 0.99)
+     * @return Percentile values by department, in the order of the quantiles requested
+     */
+    public Map<String, double[]> getGrossPercentilesByDepartment(int month, int year, double... quantiles) {
+        Map<String, QuantileSketch> sketches = new TreeMap<>();
+        
+        for (int i = 0; i < salaries.size(); i++) {
+            if (salaries.getMonth(i) != month || salaries.getYear(i) != year) {
+                continue;
+            }
+            String department = salaries.getDepartment(i);
+            if (department == null) {
+                department = PayrollConstants.UNKNOWN_DEPARTMENT;
+            }
+            sketches.computeIfAbsent(department, d -> new QuantileSketch()).add(salaries.getGrossSalary(i));
+        }
+        
+        Map<String, double[]> percentiles = new TreeMap<>();
+        for (Map.Entry<String, QuantileSketch> entry : sketches.entrySet()) {
+            double[] values = new double[quantiles.length];
+            for (int i = 0; i < quantiles.length; i++) {
+                values[i] = entry.getValue().quantile(quantiles[i]);
+            }
+            percentiles.put(entry.getKey(), values);
+        }
+        
+        return percentiles;
+    }
+
+    /**
+     * Get gross salary percentiles for one department in a month
+     * 
+     * @param department The department
+     * @param month Month to query
+     * @param year Year to query
+     * @param quantiles Quantiles between 0 and 1 (e.g. 0.5, 0.9, 0.99)
+     * @return Percentile values in the order of the quantiles requested (NaN if no salaries)
+     */
+    public double[] getGrossPercentiles(String department, int month, int year, double... quantiles) {
+        QuantileSketch sketch = new QuantileSketch();
+        
+        for (int i = 0; i < salaries.size(); i++) {
+            if (salaries.getMonth(i) == month && salaries.getYear(i) == year &&
+                department.equals(salaries.getDepartment(i))) {
+                sketch.add(salaries.getGrossSalary(i));
+            }
+        }
+        
+        double[] values = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            values[i] = sketch.quantile(quantiles[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Compare two pay periods and list the employees whose net salary changed.
+     * Each employee's payslips for both periods are looked up in the
+     * employee-period index, so the work grows with the headcount rather than
+     * with the length of the salary history. Tax changes are explained from
+     * the tax stored on the payslips; see diffPayslips.
+     * 
+     * @param previousPeriod The earlier pay period
+     * @param currentPeriod The later pay period
+     * @return Changed payslips with component deltas, sorted by employee ID
+     */
+    public List<PayslipDiff> diffPeriods(YearMonth previousPeriod, YearMonth currentPeriod) {
+        TaxTable taxTable = TaxTable.getDefault();
+        List<PayslipDiff> diffs = new ArrayList<>();
+        
+        for (int ordinal = 0; ordinal < salaries.getEmployeeCount(); ordinal++) {
+            int previousPosition = salaryPositions.get(
+                    periodKey(ordinal, previousPeriod.getMonthValue(), previousPeriod.getYear()));
+            int currentPosition = salaryPositions.get(
+                    periodKey(ordinal, currentPeriod.getMonthValue(), currentPeriod.getYear()));
+            if (previousPosition < 0 && currentPosition < 0) {
+                continue;
+            }
+            
+            PayslipDiff diff = diffPayslips(salaries.getEmployeeIdOf(ordinal),
+                    previousPosition < 0 ? null : salaries.get(previousPosition),
+                    currentPosition < 0 ? null : salaries.get(currentPosition), taxTable, taxTable);
+            if (diff != null) {
+                diffs.add(diff);
+            }
+        }
+        
+        diffs.sort(Comparator.comparing(PayslipDiff::getEmployeeId));
+        return diffs;
+    }
+
+    /**
+     * Compare two payslips of an employee. A tax table is only used to place a
+     * payslip in a bracket if it reproduces the tax stored on that payslip;
+     * a payslip taxed under other rules is explained from its stored tax.
+     * 
+     * @param employeeId The employee ID
+     * @param previous Earlier payslip, or null if none
+     * @param current Later payslip, or null if none
+     * @param previousTable Tax table the earlier payslip is expected to be taxed with
+     * @param currentTable Tax table the later payslip is expected to be taxed with
+     * @return The diff, or null if the net salary did not change
+     */
+    static PayslipDiff diffPayslips(String employeeId, Salary previous, Salary current,
+                                    TaxTable previousTable, TaxTable currentTable) {
+        List<String> reasons = new ArrayList<>();
+        
+        if (previous == null) {
+            reasons.add(PayslipDiff.REASON_NEW_PAYSLIP);
+        } else if (current == null) {
+            reasons.add(PayslipDiff.REASON_NO_PAYSLIP);
+        } else {
+            if (Math.abs(current.getNetSalary() - previous.getNetSalary()) < 0.005) {
+                return null;
+            }
+            if (Math.abs(current.getBasicSalary() - previous.getBasicSalary()) >= 0.005) {
+                reasons.add(PayslipDiff.REASON_BASIC_CHANGED);
+            }
+            if (current.getLeaveDays() != previous.getLeaveDays()) {
+                reasons.add(PayslipDiff.REASON_LEAVE_DAYS_CHANGED);
+            }
+            
+            boolean previousTaxedByTable = isTaxedBy(previous, previousTable);
+            boolean currentTaxedByTable = isTaxedBy(current, currentTable);
+            if (previousTaxedByTable && currentTaxedByTable &&
+                currentTable.bracketOf(current.getGrossSalary()) != previousTable.bracketOf(previous.getGrossSalary())) {
+                reasons.add(PayslipDiff.REASON_TAX_BRACKET_CHANGED);
+            } else if (previousTaxedByTable != currentTaxedByTable) {
+                // Only one payslip matches the table, so the tax rules changed between them
+                reasons.add(PayslipDiff.REASON_TAX_CHANGED);
+            }
+            if (reasons.isEmpty()) {
+                // Same basic, leave and bracket: either the allowances or the tax rules differ
+                boolean grossChanged = Math.abs(current.getGrossSalary() - previous.getGrossSalary()) >= 0.005;
+                reasons.add(grossChanged ? PayslipDiff.REASON_ALLOWANCES_CHANGED : PayslipDiff.REASON_TAX_CHANGED);
+            }
+        }
+        
+        return new PayslipDiff(employeeId, previous, current, reasons);
+    }
+
+    /**
+     * Check if a tax table reproduces the tax stored on a payslip
+     * (stored amounts are rounded to cents)
+     */
+    private static boolean isTaxedBy(Salary salary, TaxTable table) {
+        return Math.abs(table.taxFor(salary.getGrossSalary()) - salary.getTaxAmount()) < 0.01;
+    }
+
+    /**
+     * Rebuild the year-to-date totals from the salary ledger
+     */
+    public void rebuildYearToDateTotals() {
+        yearToDateTotals.clear();
+        for (int i = 0; i < salaries.size(); i++) {
+            yearToDateFor(salaries.getEmployeeId(i), salaries.getYear(i)).add(
+                    salaries.getGrossSalary(i), salaries.getTaxAmount(i), salaries.getNetSalary(i));
+        }
+    }
+
+    /**
+     * Rebuild the department rollups from the salary ledger.
+     * Salaries keep the department they were processed under; salaries loaded
+     * from file are assigned to their employee's current department.
+     * 
+     * @param employeeService Service used to look up employee departments
+     */
+    public void rebuildRollups(EmployeeService employeeService) {
+        departmentRollups.clear();
+        
+        for (int i = 0; i < salaries.size(); i++) {
+            String department = salaries.getDepartment(i);
+            if (department == null) {
+                Employee employee = employeeService.getEmployeeById(salaries.getEmployeeId(i));
+                department = employee != null ? employee.getDepartment() : PayrollConstants.UNKNOWN_DEPARTMENT;
+                salaries.setDepartment(i, department);
+            }
+            rollupFor(department, salaries.getMonth(i), salaries.getYear(i)).add(
+                    salaries.getGrossSalary(i), salaries.getTaxAmount(i), salaries.getNetSalary(i));
+        }
+    }
+
+    /**
+     * Build a leave-day index from the approved leaves in a list
+     * 
      * @param leaves List of leaves
-     * @param month Month to calculate
-     * @param year Year to calculate
-     * @return Number of leave days
+     * @return Approved leave days per employee
      */
-    private int calculateLeaveDays(String employeeId, List<Leave> leaves, int month, int year) {
-        int leaveDays = 0;
+    private LeaveDayIndex buildLeaveDayIndex(List<Leave> leaves) {
+        LeaveDayIndex leaveDayIndex = new LeaveDayIndex();
         
         for (Leave leave : leaves) {
-            if (leave.getEmployeeId().equals(employeeId) && 
-                leave.getStatus().equals("APPROVED") && 
-                leave.isInMonth(month, year)) {
-                
-                leaveDays += leave.getDaysInMonth(month, year);
+            if (leave.getStatusCode() == LeaveStatus.APPROVED) {
+                leaveDayIndex.add(leave.getEmployeeId(), leave.getStartDate(), leave.getEndDate());
             }
         }
         
-        return leaveDays;
+        return leaveDayIndex;
     }
 
     /**
@@ -130,31 +712,22 @@ public class PayrollService {
      * @param year Year to view
      */
     public void viewSalaryDetails(String employeeId, int month, int year) {
-        boolean found = false;
-        
-        for (Salary salary : salaries) {
-            if (salary.getEmployeeId().equals(employeeId) && 
-                salary.getMonth() == month && 
-                salary.getYear() == year) {
-                
-                System.out.println("\n===== SALARY DETAILS =====");
-                System.out.println("Employee ID: " + salary.getEmployeeId());
-                System.out.println("Month/Year: " + salary.getMonth() + "/" + salary.getYear());
-                System.out.println("Basic Salary: $" + String.format("%.2f", salary.getBasicSalary()));
-                System.out.println("Gross Salary: $" + String.format("%.2f", salary.getGrossSalary()));
-                System.out.println("Tax Amount: $" + String.format("%.2f", salary.getTaxAmount()));
-                System.out.println("Net Salary: $" + String.format("%.2f", salary.getNetSalary()));
-                System.out.println("Leave Days: " + salary.getLeaveDays());
-                System.out.println("Process Date: " + salary.getProcessDate());
-                
-                found = true;
-                break;
-            }
-        }
-        
-        if (!found) {
+        int position = positionOf(employeeId, month, year);
+        if (position < 0) {
             System.out.println("No salary record found for the specified month and year.");
+            return;
         }
+        
+        Salary salary = salaries.get(position);
+        System.out.println("\n===== SALARY DETAILS =====");
+        System.out.println("Employee ID: " + salary.getEmployeeId());
+        System.out.println("Month/Year: " + salary.getMonth() + "/" + salary.getYear());
+        System.out.println("Basic Salary: $" + String.format("%.2f", salary.getBasicSalary()));
+        System.out.println("Gross Salary: $" + String.format("%.2f", salary.getGrossSalary()));
+        System.out.println("Tax Amount: $" + String.format("%.2f", salary.getTaxAmount()));
+        System.out.println("Net Salary: $" + String.format("%.2f", salary.getNetSalary()));
+        System.out.println("Leave Days: " + salary.getLeaveDays());
+        System.out.println("Process Date: " + salary.getProcessDate());
     }
 
     /**
@@ -165,42 +738,143 @@ public class PayrollService {
             String line;
             while ((line = reader.readLine()) != null) {
                 Salary salary = Salary.fromCsv(line);
-                salaries.add(salary);
-                
-                // Add to pending salaries queue
-                if (!pendingSalaries.containsKey(salary.getEmployeeId())) {
-                    pendingSalaries.put(salary.getEmployeeId(), new LinkedList<>());
-                }
-                pendingSalaries.get(salary.getEmployeeId()).add(salary);
+                storeSalary(salary, null, false); // Rolled up once employees are known, see rebuildRollups
             }
             System.out.println("Loaded " + salaries.size() + " salary records.");
         } catch (IOException e) {
             System.out.println("No existing salary data found or error reading file. Starting with empty salary records.");
         }
+        
+        loadYearToDateTotals();
+    }
+
+    /**
+     * Load the persisted year-to-date totals, rebuilding them from the
+     * salary ledger if the file is missing or out of step with it. The file
+     * starts with the size and modification time the salaries file had when
+     * the totals were saved, so a salaries file changed since then is caught
+     * even when its record count is unchanged.
+     */
+    private void loadYearToDateTotals() {
+        yearToDateTotals.clear();
+        int salaryCount = 0;
+        String salariesStamp = salariesFileStamp();
+        
+        try (BufferedReader reader = new BufferedReader(new FileReader(PayrollConstants.YTD_FILE))) {
+            String line = reader.readLine();
+            if (salariesStamp == null || !(PayrollConstants.YTD_HEADER + salariesStamp).equals(line)) {
+                throw new IllegalStateException("Year-to-date totals were saved for another salaries file");
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                PayrollTotals totals = new PayrollTotals(
+                        Integer.parseInt(parts[2]), // count
+                        Double.parseDouble(parts[3]), // grossSalary
+                        Double.parseDouble(parts[4]), // taxAmount
+                        Double.parseDouble(parts[5]) // netSalary
+                );
+                yearToDateTotals
+                        .computeIfAbsent(parts[0], id -> new HashMap<>()) // employeeId
+                        .put(Integer.parseInt(parts[1]), totals); // year
+                salaryCount += totals.getCount();
+            }
+        } catch (IOException | RuntimeException e) {
+            salaryCount = -1;
+        }
+        
+        if (salaryCount != salaries.size()) {
+            rebuildYearToDateTotals();
+            System.out.println("Rebuilt year-to-date totals from salary records.");
+        }
+    }
+
+    /**
+     * Save the year-to-date totals to file
+     * 
+     * @param salariesStamp Stamp of the salaries file the totals match, or null if it was not saved
+     * @return true if the totals were written
+     */
+    private boolean saveYearToDateTotals(String salariesStamp) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PayrollConstants.YTD_FILE))) {
+            writer.write(PayrollConstants.YTD_HEADER + (salariesStamp != null ? salariesStamp : "unsaved"));
+            writer.newLine();
+            for (Map.Entry<String, Map<Integer, PayrollTotals>> entry : yearToDateTotals.entrySet()) {
+                for (Map.Entry<Integer, PayrollTotals> year : entry.getValue().entrySet()) {
+                    PayrollTotals totals = year.getValue();
+                    if (totals.isEmpty()) {
+                        continue;
+                    }
+                    writer.write(String.format("%s,%d,%d,%.2f,%.2f,%.2f",
+                            entry.getKey(),
+                            year.getKey(),
+                            totals.getCount(),
+                            totals.getGrossSalary(),
+                            totals.getTaxAmount(),
+                            totals.getNetSalary()));
+                    writer.newLine();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error saving year-to-date totals: " + e.getMessage());
+            return false;
+        }
     }
 
     /**
      * Save salaries to file
+     * 
+     * @return true if the salaries and year-to-date totals were both written
      */
-    public void saveSalaries() {
+    public boolean saveSalaries() {
+        boolean saved;
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(PayrollConstants.SALARIES_FILE))) {
-            for (Salary salary : salaries) {
-                writer.write(salary.toCsv());
+            for (int i = 0; i < salaries.size(); i++) {
+                writer.write(salaries.get(i).toCsv());
                 writer.newLine();
             }
             System.out.println("Saved " + salaries.size() + " salary records.");
+            saved = true;
         } catch (IOException e) {
             System.out.println("Error saving salaries: " + e.getMessage());
+            saved = false;
+        }
+        
+        return saveYearToDateTotals(saved ? salariesFileStamp() : null) && saved;
+    }
+
+    /**
+     * Get the size and modification time of the salaries file
+     * 
+     * @return The stamp as "size,modifiedMillis", or null if the file cannot be read
+     */
+    private static String salariesFileStamp() {
+        try {
+            Path path = Paths.get(PayrollConstants.SALARIES_FILE);
+            return Files.size(path) + "," + Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return null;
         }
     }
 
     /**
      * Get all salaries
      * 
-     * @return List of all salaries
+     * @return Read-only list of all salaries, each a view of the off-heap ledger
      */
     public List<Salary> getAllSalaries() {
-        return salaries;
+        return new AbstractList<Salary>() {
+            @Override
+            public Salary get(int index) {
+                Objects.checkIndex(index, salaries.size());
+                return salaries.get(index);
+            }
+
+            @Override
+            public int size() {
+                return salaries.size();
+            }
+        };
     }
 
     /**
@@ -211,10 +885,14 @@ public class PayrollService {
      */
     public List<Salary> getSalariesByEmployeeId(String employeeId) {
         List<Salary> employeeSalaries = new ArrayList<>();
+        int ordinal = salaries.ordinalOf(employeeId);
+        if (ordinal < 0) {
+            return employeeSalaries;
+        }
         
-        for (Salary salary : salaries) {
-            if (salary.getEmployeeId().equals(employeeId)) {
-                employeeSalaries.add(salary);
+        for (int i = 0; i < salaries.size(); i++) {
+            if (salaries.getEmployeeOrdinal(i) == ordinal) {
+                employeeSalaries.add(salaries.get(i));
             }
         }
         
@@ -225,10 +903,15 @@ public class PayrollService {
      * Get pending salaries for a specific employee
      * 
      * @param employeeId The employee ID
-     * @return Queue of pending salaries
+     * @return Queue of pending salaries, oldest first (a copy)
      */
     public Queue<Salary> getPendingSalaries(String employeeId) {
-        return pendingSalaries.getOrDefault(employeeId, new LinkedList<>());
+        Queue<Salary> pending = new LinkedList<>();
+        IntQueue queue = pendingSalaries.get(employeeId);
+        for (int i = 0; queue != null && i < queue.size(); i++) {
+            pending.add(salaries.get(queue.get(i)));
+        }
+        return pending;
     }
 
     /**
@@ -238,11 +921,11 @@ public class PayrollService {
      * @return The processed salary, or null if no pending salaries
      */
     public Salary processNextSalary(String employeeId) {
-        Queue<Salary> queue = pendingSalaries.get(employeeId);
+        IntQueue queue = pendingSalaries.get(employeeId);
         if (queue == null || queue.isEmpty()) {
             return null;
         }
         
-        return queue.poll();
+        return salaries.get(queue.poll());
     }
 }
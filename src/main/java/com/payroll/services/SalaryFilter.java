@@ -0,0 +1,98 @@
+package com.payroll.services;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * SalaryFilter describes which salary records an export or query should include.
+ * Criteria left unset match every record; set criteria are combined with AND.
+ */
+public class SalaryFilter {
+    private Set<String> employeeIds;
+    private String department;
+    private YearMonth fromPeriod;
+    private YearMonth toPeriod;
+
+    /**
+     * Restrict the filter to a set of employees
+     *
+     * @param employeeIds The employee IDs
+     * @return This filter
+     */
+    public SalaryFilter withEmployeeIds(Set<String> employeeIds) {
+        this.employeeIds = new HashSet<>(employeeIds);
+        return this;
+    }
+
+    /**
+     * Restrict the filter to a department
+     *
+     * @param department The department the salary was processed under
+     * @return This filter
+     */
+    public SalaryFilter withDepartment(String department) {
+        this.department = department;
+        return this;
+    }
+
+    /**
+     * Restrict the filter to a range of pay periods
+     *
+     * @param from First period to include, or null for no lower bound
+     * @param to Last period to include, or null for no upper bound
+     * @return This filter
+     */
+    public SalaryFilter betweenPeriods(YearMonth from, YearMonth to) {
+        this.fromPeriod = from;
+        this.toPeriod = to;
+        return this;
+    }
+
+    /**
+     * Check if the pay period and employee of a salary match, without the department
+     *
+     * @param employeeId The employee ID
+     * @param month Month of the salary
+     * @param year Year of the salary
+     * @return true if the record is within the period range and employee set
+     */
+    public boolean matches(String employeeId, int month, int year) {
+        if (fromPeriod != null && periodIndex(year, month) < periodIndex(fromPeriod.getYear(), fromPeriod.getMonthValue())) {
+            return false;
+        }
+        if (toPeriod != null && periodIndex(year, month) > periodIndex(toPeriod.getYear(), toPeriod.getMonthValue())) {
+            return false;
+        }
+        return employeeIds == null || employeeIds.contains(employeeId);
+    }
+
+    /**
+     * Check if a department matches
+     *
+     * @param salaryDepartment Department the salary was processed under
+     * @return true if no department was set or it is equal
+     */
+    public boolean matchesDepartment(String salaryDepartment) {
+        return department == null || department.equals(salaryDepartment);
+    }
+
+    private static int periodIndex(int year, int month) {
+        return year * 12 + month;
+    }
+
+    /**
+     * Getters
+     */
+    public String getDepartment() {
+        return department;
+    }
+
+    public YearMonth getFromPeriod() {
+        return fromPeriod;
+    }
+
+    public YearMonth getToPeriod() {
+        return toPeriod;
+    }
+}
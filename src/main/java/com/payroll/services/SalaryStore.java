@@ -0,0 +1,313 @@
+package com.payroll.services;
+
+import com.payroll.models.Salary;
+import com.payroll.utils.DepartmentDictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SalaryStore keeps salary records off the Java heap in fixed-size records
+ * inside direct ByteBuffers, so a long salary history adds almost nothing
+ * for the garbage collector to trace. Records are addressed by index and
+ * read through Salary views that fetch each field from the buffer.
+ * 
+ * Record layout (56 bytes):
+ *   0 int employee ordinal   4 int department code   8 short year
+ *  10 short month           12 int leave days       16 int process date (epoch day)
+ *  24 double basic          32 double gross         40 double tax
+ *  48 double net
+ * 
+ * Not thread-safe for writes; PayrollService stores salaries from one thread.
+ */
+public class SalaryStore {
+    private static final int RECORD_SIZE = 56;
+    private static final int CHUNK_SHIFT = 16; // 65536 records, 3.5 MB per buffer
+    private static final int RECORDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+
+    private static final int EMPLOYEE = 0;
+    private static final int DEPARTMENT = 4;
+    private static final int YEAR = 8;
+    private static final int MONTH = 10;
+    private static final int LEAVE_DAYS = 12;
+    private static final int PROCESS_DATE = 16;
+    private static final int BASIC = 24;
+    private static final int GROSS = 32;
+    private static final int TAX = 40;
+    private static final int NET = 48;
+
+    private final List<ByteBuffer> chunks; // Grown one buffer at a time, so records never move
+    private int size;
+    private final Map<String, Integer> employeeOrdinalsById;
+    private String[] employeeIds;
+
+    /**
+     * Constructor for SalaryStore
+     */
+    public SalaryStore() {
+        this.chunks = new ArrayList<>();
+        this.employeeOrdinalsById = new HashMap<>();
+        this.employeeIds = new String[64];
+    }
+
+    /**
+     * Append a salary record
+     * 
+     * @param salary The salary record
+     * @param department Department the salary is rolled up under, or null if not yet known
+     * @return Index of the stored record
+     */
+    public int add(Salary salary, String department) {
+        if (size == chunks.size() * RECORDS_PER_CHUNK) {
+            chunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_SIZE).order(ByteOrder.nativeOrder()));
+        }
+        int index = size++;
+        set(index, salary, department);
+        return index;
+    }
+
+    /**
+     * Overwrite a stored salary record
+     * 
+     * @param index Index of the record
+     * @param salary The new salary values
+     * @param department Department the salary is rolled up under, or null if not yet known
+     */
+    public void set(int index, Salary salary, String department) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        chunk.putInt(offset + EMPLOYEE, employeeOrdinal(salary.getEmployeeId()));
+        chunk.putInt(offset + DEPARTMENT, DepartmentDictionary.codeOf(department));
+        chunk.putShort(offset + YEAR, (short) salary.getYear());
+        chunk.putShort(offset + MONTH, (short) salary.getMonth());
+        chunk.putInt(offset + LEAVE_DAYS, salary.getLeaveDays());
+        chunk.putInt(offset + PROCESS_DATE, (int) salary.getProcessDate().toEpochDay());
+        chunk.putDouble(offset + BASIC, salary.getBasicSalary());
+        chunk.putDouble(offset + GROSS, salary.getGrossSalary());
+        chunk.putDouble(offset + TAX, salary.getTaxAmount());
+        chunk.putDouble(offset + NET, salary.getNetSalary());
+    }
+
+    /**
+     * Set the department a stored salary is rolled up under
+     * 
+     * @param index Index of the record
+     * @param department The department, or null if not known
+     */
+    public void setDepartment(int index, String department) {
+        chunk(index).putInt(offset(index) + DEPARTMENT, DepartmentDictionary.codeOf(department));
+    }
+
+    /**
+     * Get a read-only view of a stored salary record.
+     * The view reads the buffer on every call, so it reflects later replacements.
+     * 
+     * @param index Index of the record
+     * @return Salary view of the record
+     */
+    public Salary get(int index) {
+        return new View(index);
+    }
+
+    /**
+     * Get the ordinal assigned to an employee ID
+     * 
+     * @param employeeId The employee ID
+     * @return The ordinal, or -1 if the employee has no stored salary
+     */
+    public int ordinalOf(String employeeId) {
+        Integer ordinal = employeeOrdinalsById.get(employeeId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    private int employeeOrdinal(String employeeId) {
+        Integer ordinal = employeeOrdinalsById.get(employeeId);
+        if (ordinal == null) {
+            ordinal = employeeOrdinalsById.size();
+            if (ordinal == employeeIds.length) {
+                employeeIds = Arrays.copyOf(employeeIds, ordinal * 2);
+            }
+            employeeIds[ordinal] = employeeId;
+            employeeOrdinalsById.put(employeeId, ordinal);
+        }
+        return ordinal;
+    }
+
+    private ByteBuffer chunk(int index) {
+        return chunks.get(index >>> CHUNK_SHIFT);
+    }
+
+    private static int offset(int index) {
+        return (index & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+    }
+
+    /**
+     * Getters by record index
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getEmployeeCount() {
+        return employeeOrdinalsById.size();
+    }
+
+    public String getEmployeeIdOf(int ordinal) {
+        return employeeIds[ordinal];
+    }
+
+    public int getEmployeeOrdinal(int index) {
+        return chunk(index).getInt(offset(index) + EMPLOYEE);
+    }
+
+    public String getEmployeeId(int index) {
+        return employeeIds[getEmployeeOrdinal(index)];
+    }
+
+    public String getDepartment(int index) {
+        return DepartmentDictionary.nameOf(chunk(index).getInt(offset(index) + DEPARTMENT));
+    }
+
+    public int getYear(int index) {
+        return chunk(index).getShort(offset(index) + YEAR);
+    }
+
+    public int getMonth(int index) {
+        return chunk(index).getShort(offset(index) + MONTH);
+    }
+
+    public int getLeaveDays(int index) {
+        return chunk(index).getInt(offset(index) + LEAVE_DAYS);
+    }
+
+    public LocalDate getProcessDate(int index) {
+        return LocalDate.ofEpochDay(chunk(index).getInt(offset(index) + PROCESS_DATE));
+    }
+
+    public double getBasicSalary(int index) {
+        return chunk(index).getDouble(offset(index) + BASIC);
+    }
+
+    public double getGrossSalary(int index) {
+        return chunk(index).getDouble(offset(index) + GROSS);
+    }
+
+    public double getTaxAmount(int index) {
+        return chunk(index).getDouble(offset(index) + TAX);
+    }
+
+    public double getNetSalary(int index) {
+        return chunk(index).getDouble(offset(index) + NET);
+    }
+
+    /**
+     * Flyweight Salary reading one stored record; holds only its index
+     */
+    private final class View extends Salary {
+        private final int index;
+
+        private View(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getEmployeeId() {
+            return SalaryStore.this.getEmployeeId(index);
+        }
+
+        @Override
+        public double getBasicSalary() {
+            return SalaryStore.this.getBasicSalary(index);
+        }
+
+        @Override
+        public double getGrossSalary() {
+            return SalaryStore.this.getGrossSalary(index);
+        }
+
+        @Override
+        public double getTaxAmount() {
+            return SalaryStore.this.getTaxAmount(index);
+        }
+
+        @Override
+        public double getNetSalary() {
+            return SalaryStore.this.getNetSalary(index);
+        }
+
+        @Override
+        public int getMonth() {
+            return SalaryStore.this.getMonth(index);
+        }
+
+        @Override
+        public int getYear() {
+            return SalaryStore.this.getYear(index);
+        }
+
+        @Override
+        public int getLeaveDays() {
+            return SalaryStore.this.getLeaveDays(index);
+        }
+
+        @Override
+        public LocalDate getProcessDate() {
+            return SalaryStore.this.getProcessDate(index);
+        }
+
+        @Override
+        public void setEmployeeId(String employeeId) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setBasicSalary(double basicSalary) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setGrossSalary(double grossSalary) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTaxAmount(double taxAmount) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setNetSalary(double netSalary) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setMonth(int month) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setYear(int year) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setLeaveDays(int leaveDays) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setProcessDate(LocalDate processDate) {
+            throw readOnly();
+        }
+
+        private UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Stored salary records are read-only");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.payroll.services;
+
+import com.payroll.models.PayrollTotals;
+import com.payroll.models.PayslipDiff;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SimulationResult holds the outcome of one what-if scenario compared with
+ * the live configuration for the same employees and pay period
+ */
+public class SimulationResult {
+    private final String scenarioName;
+    private final PayrollTotals baselineTotals;
+    private final PayrollTotals scenarioTotals;
+    private final List<PayslipDiff> employeeDiffs;
+
+    /**
+     * Constructor for SimulationResult
+     *
+     * @param scenarioName Name of the scenario
+     * @param baselineTotals Payroll totals under the live configuration
+     * @param scenarioTotals Payroll totals under the scenario
+     * @param employeeDiffs Per-employee changes, only for payslips whose net salary changed
+     */
+    public SimulationResult(String scenarioName, PayrollTotals baselineTotals, PayrollTotals scenarioTotals,
+                            List<PayslipDiff> employeeDiffs) {
+        this.scenarioName = scenarioName;
+        this.baselineTotals = baselineTotals;
+        this.scenarioTotals = scenarioTotals;
+        this.employeeDiffs = Collections.unmodifiableList(employeeDiffs);
+    }
+
+    /**
+     * Aggregate deltas (scenario minus baseline)
+     */
+    public double getGrossDelta() {
+        return scenarioTotals.getGrossSalary() - baselineTotals.getGrossSalary();
+    }
+
+    public double getTaxDelta() {
+        return scenarioTotals.getTaxAmount() - baselineTotals.getTaxAmount();
+    }
+
+    public double getNetDelta() {
+        return scenarioTotals.getNetSalary() - baselineTotals.getNetSalary();
+    }
+
+    /**
+     * Getters
+     */
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public PayrollTotals getBaselineTotals() {
+        return baselineTotals;
+    }
+
+    public PayrollTotals getScenarioTotals() {
+        return scenarioTotals;
+    }
+
+    public List<PayslipDiff> getEmployeeDiffs() {
+        return employeeDiffs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Scenario [%s, Gross: %+.2f, Tax: %+.2f, Net: %+.2f, Payslips Changed: %d]",
+                scenarioName, getGrossDelta(), getTaxDelta(), getNetDelta(), employeeDiffs.size());
+    }
+}
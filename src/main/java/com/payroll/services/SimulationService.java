@@ -0,0 +1,145 @@
+package com.payroll.services;
+
+import com.payroll.models.CompensationRecord;
+import com.payroll.models.Employee;
+import com.payroll.models.PayrollTotals;
+import com.payroll.models.PayslipDiff;
+import com.payroll.models.Salary;
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.BusinessCalendar;
+import com.payroll.utils.LeaveDayIndex;
+import com.payroll.utils.TaxTable;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * SimulationService evaluates what-if payroll scenarios.
+ * Employees, their leave days and the live tax and allowance configuration
+ * are copied into immutable snapshots first, so scenarios run in parallel
+ * without reading or writing live payroll state.
+ */
+public class SimulationService {
+
+    /**
+     * Simulate scenarios for a pay period
+     * 
+     * @param employees Employees to include
+     * @param leaveDayIndex Approved leave days per employee
+     * @param month Month to simulate
+     * @param year Year to simulate
+     * @param scenarios Scenarios to evaluate
+     * @return One result per scenario, in the order given
+     */
+    public List<SimulationResult> simulate(Collection<Employee> employees, LeaveDayIndex leaveDayIndex,
+                                           int month, int year, List<PayrollScenario> scenarios) {
+        YearMonth period = YearMonth.of(year, month);
+        BusinessCalendar calendar = BusinessCalendar.getDefault();
+        TaxTable liveTaxTable = TaxTable.getDefault();
+        AllowanceRules liveRules = AllowanceRules.getDefault();
+        int workingDays = calendar.workingDaysIn(period);
+        
+        // Snapshot live data on the calling thread; everything after this is read-only
+        List<EmployeeSnapshot> snapshotList = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            CompensationRecord compensation = employee.getCompensationAsOf(period.atEndOfMonth());
+            if (compensation != null) {
+                snapshotList.add(new EmployeeSnapshot(employee, compensation,
+                        leaveDayIndex.countWorkingDays(employee.getId(), period, calendar)));
+            }
+        }
+        EmployeeSnapshot[] snapshots = snapshotList.toArray(new EmployeeSnapshot[0]);
+        
+        PayrollScenario baselineScenario = new PayrollScenario("Baseline");
+        Salary[] baseline = payslips(snapshots, baselineScenario, liveTaxTable, liveRules, workingDays, month, year);
+        PayrollTotals baselineTotals = totals(baseline);
+        
+        return scenarios.parallelStream()
+                .map(scenario -> compare(scenario, snapshots, baseline, baselineTotals,
+                        liveTaxTable, liveRules, workingDays, month, year))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Evaluate one scenario and compare it with the baseline payslips
+     */
+    private SimulationResult compare(PayrollScenario scenario, EmployeeSnapshot[] snapshots, Salary[] baseline,
+                                     PayrollTotals baselineTotals, TaxTable liveTaxTable, AllowanceRules liveRules,
+                                     int workingDays, int month, int year) {
+        Salary[] simulated = payslips(snapshots, scenario, liveTaxTable, liveRules, workingDays, month, year);
+        TaxTable scenarioTaxTable = scenario.taxTableOr(liveTaxTable);
+        
+        List<PayslipDiff> diffs = new ArrayList<>();
+        for (int i = 0; i < snapshots.length; i++) {
+            PayslipDiff diff = PayrollService.diffPayslips(snapshots[i].id, baseline[i], simulated[i],
+                    liveTaxTable, scenarioTaxTable);
+            if (diff != null) {
+                diffs.add(diff);
+            }
+        }
+        diffs.sort(Comparator.comparing(PayslipDiff::getEmployeeId));
+        
+        return new SimulationResult(scenario.getName(), baselineTotals, totals(simulated), diffs);
+    }
+
+    /**
+     * Compute the payslip of every snapshot under a scenario, in parallel
+     */
+    private Salary[] payslips(EmployeeSnapshot[] snapshots, PayrollScenario scenario, TaxTable liveTaxTable,
+                              AllowanceRules liveRules, int workingDays, int month, int year) {
+        TaxTable taxTable = scenario.taxTableOr(liveTaxTable);
+        AllowanceRules rules = scenario.allowanceRulesOr(liveRules);
+        Salary[] payslips = new Salary[snapshots.length];
+        
+        IntStream.range(0, snapshots.length).parallel().forEach(i -> {
+            EmployeeSnapshot snapshot = snapshots[i];
+            double basic = snapshot.basicSalary * scenario.basicMultiplierFor(snapshot.department);
+            double gross = rules.grossSalary(snapshot.employeeType, basic,
+                    snapshot.experienceYears, snapshot.teamSize, snapshot.managementLevel);
+            if (snapshot.leaveDays > 0 && workingDays > 0) {
+                gross -= (basic / workingDays) * snapshot.leaveDays;
+            }
+            double tax = taxTable.taxFor(gross);
+            payslips[i] = new Salary(snapshot.id, basic, gross, tax, gross - tax, month, year, snapshot.leaveDays);
+        });
+        return payslips;
+    }
+
+    private static PayrollTotals totals(Salary[] payslips) {
+        PayrollTotals totals = new PayrollTotals();
+        for (Salary payslip : payslips) {
+            totals.add(payslip);
+        }
+        return totals;
+    }
+
+    /**
+     * Immutable copy of the salary-relevant attributes of an employee
+     */
+    private static class EmployeeSnapshot {
+        private final String id;
+        private final String department;
+        private final String employeeType;
+        private final double basicSalary;
+        private final int experienceYears;
+        private final int teamSize;
+        private final int managementLevel;
+        private final int leaveDays;
+
+        private EmployeeSnapshot(Employee employee, CompensationRecord compensation, int leaveDays) {
+            this.id = employee.getId();
+            this.department = employee.getDepartment();
+            this.employeeType = employee.getEmployeeType();
+            this.basicSalary = compensation.getBasicSalary();
+            this.experienceYears = compensation.getExperienceYears();
+            this.teamSize = compensation.getTeamSize();
+            this.managementLevel = compensation.getManagementLevel();
+            this.leaveDays = leaveDays;
+        }
+    }
+}
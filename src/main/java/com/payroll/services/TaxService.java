@@ -0,0 +1,119 @@
+package com.payroll.services;
+
+import com.payroll.utils.PayrollConstants;
+import com.payroll.utils.TaxTable;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TaxService loads bracket tables per jurisdiction and computes tax with them
+ */
+public class TaxService {
+    private Map<String, TaxTable> tables;
+
+    /**
+     * Constructor for TaxService
+     * Starts with the built-in default table only
+     */
+    public TaxService() {
+        this.tables = new HashMap<>();
+        this.tables.put(PayrollConstants.DEFAULT_JURISDICTION, TaxTable.getDefault());
+    }
+
+    /**
+     * Load bracket tables from file. Each line holds a jurisdiction, the lower
+     * bound of a bracket and its marginal rate. The table of the default
+     * jurisdiction becomes the one used for employee tax calculations.
+     */
+    public void loadTaxTables() {
+        Map<String, List<double[]>> brackets = new LinkedHashMap<>();
+        
+        try (BufferedReader reader = new BufferedReader(new FileReader(PayrollConstants.TAX_BRACKETS_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length < 3) {
+                    continue; // Skip invalid entries
+                }
+                double lowerBound;
+                double rate;
+                try {
+                    lowerBound = Double.parseDouble(parts[1].trim());
+                    rate = Double.parseDouble(parts[2].trim());
+                } catch (NumberFormatException e) {
+                    System.out.println("Skipping tax bracket '" + line + "': " + e.getMessage());
+                    continue;
+                }
+                brackets.computeIfAbsent(parts[0].trim(), j -> new ArrayList<>()).add(new double[] {lowerBound, rate});
+            }
+        } catch (IOException e) {
+            System.out.println("No tax bracket configuration found. Using built-in tax brackets.");
+            return;
+        }
+        
+        int loaded = 0;
+        for (Map.Entry<String, List<double[]>> entry : brackets.entrySet()) {
+            List<double[]> rows = entry.getValue();
+            rows.sort((a, b) -> Double.compare(a[0], b[0]));
+            
+            double[] lowerBounds = new double[rows.size()];
+            double[] rates = new double[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                lowerBounds[i] = rows.get(i)[0];
+                rates[i] = rows.get(i)[1];
+            }
+            
+            try {
+                tables.put(entry.getKey(), TaxTable.compile(entry.getKey(), lowerBounds, rates));
+                loaded++;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Skipping tax table: " + e.getMessage());
+            }
+        }
+        
+        TaxTable.setDefault(getTable(PayrollConstants.DEFAULT_JURISDICTION));
+        System.out.println("Loaded " + loaded + " tax tables.");
+    }
+
+    /**
+     * Get the table of a jurisdiction
+     * 
+     * @param jurisdiction The jurisdiction
+     * @return Its table, or the default table if the jurisdiction is unknown
+     */
+    public TaxTable getTable(String jurisdiction) {
+        TaxTable table = tables.get(jurisdiction);
+        return table != null ? table : tables.get(PayrollConstants.DEFAULT_JURISDICTION);
+    }
+
+    /**
+     * Calculate tax on a single amount
+     * 
+     * @param jurisdiction The jurisdiction
+     * @param amount The taxable amount
+     * @return Tax amount
+     */
+    public double calculateTax(String jurisdiction, double amount) {
+        return getTable(jurisdiction).taxFor(amount);
+    }
+
+    /**
+     * Calculate tax for a whole payroll run at once
+     * 
+     * @param jurisdiction The jurisdiction
+     * @param amounts The taxable amounts
+     * @return Tax for each amount, in the same order
+     */
+    public double[] calculateTaxes(String jurisdiction, double[] amounts) {
+        double[] taxes = new double[amounts.length];
+        getTable(jurisdiction).taxFor(amounts, taxes);
+        return taxes;
+    }
+}
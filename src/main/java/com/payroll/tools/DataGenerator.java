@@ -0,0 +1,463 @@
+package com.payroll.tools;
+
+import com.payroll.utils.AllowanceRules;
+import com.payroll.utils.BusinessCalendar;
+import com.payroll.utils.LeaveDayIndex;
+import com.payroll.utils.PayrollConstants;
+import com.payroll.utils.TaxTable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates seeded synthetic datasets in the employees.csv, leaves.csv and
+ * salaries.csv formats for load testing.
+ * 
+ * Every row draws from its own SplittableRandom seeded by the run seed and
+ * the row number, so output is identical for the same arguments no matter
+ * how many threads write it. Files are written as shards in parallel and
+ * concatenated in order. The leave days of each salary are the working days
+ * of the generated approved leaves in that month, as payroll would count them.
+ * 
+ * Usage:
+ *   java -cp bin com.payroll.tools.DataGenerator [--employees N] [--leaves N]
+ *       [--years N] [--end YYYY-MM] [--seed N] [--overlap-rate R] [--out DIR]
+ */
+public class DataGenerator {
+    private static final int SHARD_ROWS = 50_000; // Rows per parallel writer shard
+    private static final long EMPLOYEE_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long LEAVE_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final LocalDate EARLIEST_JOINING_DATE = LocalDate.of(2010, 1, 1);
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final String[] DEPARTMENTS = {
+            "Engineering", "Sales", "Operations", "Support", "Marketing", "Finance",
+            "Human Resources", "Research", "Legal", "Procurement", "Facilities", "Security"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Jane", "John", "Priya", "Wei", "Carlos", "Amara", "Olivia", "Liam", "Noah", "Emma",
+            "Sofia", "Mateo", "Yuki", "Fatima", "Lucas", "Chloe", "Arjun", "Mia", "Omar", "Elena"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Garcia", "Chen", "Patel", "Kim", "Nguyen", "Okafor", "Rossi", "Muller",
+            "Silva", "Tanaka", "Khan", "Martin", "Lopez", "Brown", "Novak", "Cohen", "Haddad", "Larsen"
+    };
+    private static final String[] LANGUAGES = {"Java", "Python", "JavaScript", "Go", "C++", "Kotlin", "Rust", "Scala"};
+    private static final String[] LEAVE_TYPES = {
+            PayrollConstants.LEAVE_TYPE_SICK, PayrollConstants.LEAVE_TYPE_CASUAL, PayrollConstants.LEAVE_TYPE_ANNUAL
+    };
+    private static final String[] LEAVE_REASONS = {
+            "Medical appointment", "Family event", "Vacation", "Personal errand", "Flu", "Moving house", "Conference"
+    };
+
+    private final int employeeCount;
+    private final int leaveCount;
+    private final YearMonth[] periods;
+    private final long seed;
+    private final double overlapRate;
+    private final Path outputDir;
+    private final double[] departmentCdf; // Cumulative Zipf weights, so a few departments hold most employees
+    private final int idWidth;
+
+    /**
+     * Constructor for DataGenerator
+     * 
+     * @param employeeCount Number of employees
+     * @param leaveCount Number of leave rows
+     * @param years Years of monthly salaries per employee
+     * @param end Last salary period
+     * @param seed Seed of the dataset
+     * @param overlapRate Fraction of leaves that overlap the previous leave of the same employee
+     * @param outputDir Directory receiving the files
+     */
+    public DataGenerator(int employeeCount, int leaveCount, int years, YearMonth end, long seed,
+                         double overlapRate, Path outputDir) {
+        this.employeeCount = employeeCount;
+        this.leaveCount = leaveCount;
+        this.seed = seed;
+        this.overlapRate = overlapRate;
+        this.outputDir = outputDir;
+        this.idWidth = Math.max(7, String.valueOf(employeeCount).length());
+        
+        this.periods = new YearMonth[years * 12];
+        for (int i = 0; i < periods.length; i++) {
+            periods[i] = end.minusMonths(periods.length - 1 - i);
+        }
+        
+        this.departmentCdf = new double[DEPARTMENTS.length];
+        double total = 0;
+        for (int i = 0; i < DEPARTMENTS.length; i++) {
+            total += 1 / Math.pow(i + 1, 1.2);
+            departmentCdf[i] = total;
+        }
+        for (int i = 0; i < DEPARTMENTS.length; i++) {
+            departmentCdf[i] /= total;
+        }
+    }
+
+    public static void main(String[] args) {
+        int employees = 10_000;
+        int leaves = 50_000;
+        int years = 5;
+        YearMonth end = YearMonth.now().minusMonths(1);
+        long seed = 42;
+        double overlapRate = 0.02;
+        String out = "generated";
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--employees":
+                    employees = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--leaves":
+                    leaves = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--years":
+                    years = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--end":
+                    end = YearMonth.parse(args[i + 1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--overlap-rate":
+                    overlapRate = Double.parseDouble(args[i + 1]);
+                    break;
+                case "--out":
+                    out = args[i + 1];
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        
+        try {
+            new DataGenerator(employees, leaves, years, end, seed, overlapRate, Paths.get(out)).generate();
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error generating data: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Write employees.csv, leaves.csv and salaries.csv
+     * 
+     * @throws IOException if a file cannot be written
+     */
+    public void generate() throws IOException {
+        Files.createDirectories(outputDir);
+        
+        long start = System.currentTimeMillis();
+        writeSharded(outputDir.resolve("employees.csv"), employeeCount, SHARD_ROWS, this::appendEmployee);
+        System.out.println("Wrote " + employeeCount + " employees in " + (System.currentTimeMillis() - start) + " ms.");
+        
+        start = System.currentTimeMillis();
+        writeSharded(outputDir.resolve("leaves.csv"), leaveCount, SHARD_ROWS, this::appendLeave);
+        System.out.println("Wrote " + leaveCount + " leaves in " + (System.currentTimeMillis() - start) + " ms.");
+        
+        start = System.currentTimeMillis();
+        SalaryContext context = new SalaryContext();
+        writeSharded(outputDir.resolve("salaries.csv"), employeeCount, Math.max(1, SHARD_ROWS / Math.max(1, periods.length)),
+                (index, line) -> appendSalaries(index, line, context));
+        System.out.println("Wrote salaries for " + periods.length + " months in " + (System.currentTimeMillis() - start) + " ms.");
+    }
+
+    /**
+     * Appends the rows produced for one unit (an employee, a leave, ...) to a line buffer
+     */
+    private interface UnitWriter {
+        void append(int index, StringBuilder lines);
+    }
+
+    /**
+     * Write units in parallel shards, then concatenate the shards in order
+     * 
+     * @param target File to write
+     * @param unitCount Number of units
+     * @param unitsPerShard Units written by each shard
+     * @param writer Appends the rows of one unit
+     * @throws IOException if a file cannot be written
+     */
+    private void writeSharded(Path target, int unitCount, int unitsPerShard, UnitWriter writer) throws IOException {
+        int shardCount = (unitCount + unitsPerShard - 1) / unitsPerShard;
+        Path[] parts = new Path[shardCount];
+        
+        IntStream.range(0, shardCount).parallel().forEach(shard -> {
+            parts[shard] = target.resolveSibling(target.getFileName() + ".part" + shard);
+            int to = (int) Math.min((long) (shard + 1) * unitsPerShard, unitCount);
+            StringBuilder lines = new StringBuilder(256);
+            try (BufferedWriter out = Files.newBufferedWriter(parts[shard], StandardCharsets.UTF_8)) {
+                for (int index = shard * unitsPerShard; index < to; index++) {
+                    lines.setLength(0);
+                    writer.append(index, lines);
+                    out.append(lines);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+                Files.delete(part);
+            }
+        }
+    }
+
+    /**
+     * Attributes of a generated employee
+     */
+    private static class EmployeeRow {
+        String id;
+        String firstName;
+        String lastName;
+        String department;
+        long joiningEpochDay;
+        double basicSalary;
+        boolean manager;
+        String language;
+        int experienceYears;
+        int teamSize;
+        int managementLevel;
+    }
+
+    /**
+     * Generate employee attributes; always the same for the same index and seed
+     * 
+     * @param index Employee number
+     * @return The employee attributes
+     */
+    private EmployeeRow employee(int index) {
+        SplittableRandom random = random(EMPLOYEE_STREAM, index);
+        EmployeeRow row = new EmployeeRow();
+        row.id = employeeId(index);
+        long lastDay = periods[periods.length - 1].atEndOfMonth().toEpochDay();
+        row.joiningEpochDay = EARLIEST_JOINING_DATE.toEpochDay() +
+                random.nextLong(Math.max(1, lastDay - EARLIEST_JOINING_DATE.toEpochDay()));
+        row.firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        row.lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        
+        int department = Arrays.binarySearch(departmentCdf, random.nextDouble());
+        row.department = DEPARTMENTS[Math.min(department < 0 ? -department - 1 : department, DEPARTMENTS.length - 1)];
+        
+        row.manager = random.nextDouble() < 0.1;
+        double spread = random.nextDouble();
+        if (row.manager) {
+            row.basicSalary = Math.round((60000 + 90000 * spread * spread) / 100) * 100.0;
+            row.teamSize = random.nextInt(2, 31);
+            row.managementLevel = random.nextInt(1, 4);
+        } else {
+            row.basicSalary = Math.round((35000 + 85000 * spread * spread) / 100) * 100.0;
+            row.language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+            row.experienceYears = random.nextInt(0, 21);
+        }
+        return row;
+    }
+
+    private void appendEmployee(int index, StringBuilder line) {
+        EmployeeRow row = employee(index);
+        line.append(row.id).append(',')
+            .append(row.firstName).append(' ').append(row.lastName).append(',')
+            .append(row.firstName.toLowerCase()).append('.').append(row.lastName.toLowerCase())
+            .append('.').append(index).append("@company.com,")
+            .append("555-").append(1000 + index % 9000).append(',')
+            .append(row.department).append(',')
+            .append(LocalDate.ofEpochDay(row.joiningEpochDay)).append(',');
+        appendAmount(line, row.basicSalary).append(',');
+        if (row.manager) {
+            line.append(PayrollConstants.EMPLOYEE_TYPE_MANAGER).append(',')
+                .append(row.teamSize).append(',').append(row.managementLevel);
+        } else {
+            line.append(PayrollConstants.EMPLOYEE_TYPE_DEVELOPER).append(',')
+                .append(row.language).append(',').append(row.experienceYears);
+        }
+        line.append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Attributes of a generated leave
+     */
+    private static class LeaveRow {
+        int employee;
+        long startEpochDay;
+        long endEpochDay;
+        String type;
+        String reason;
+        String status;
+    }
+
+    /**
+     * Generate leave attributes; always the same for the same index and seed.
+     * A leave chosen to overlap copies the employee of the previous leave and
+     * starts inside it, unless that leave was itself an overlap.
+     * 
+     * @param index Leave number
+     * @return The leave attributes
+     */
+    private LeaveRow leave(int index) {
+        SplittableRandom random = random(LEAVE_STREAM, index);
+        boolean overlap = index > 0 && isOverlap(index) && !isOverlap(index - 1);
+        random.nextDouble(); // Overlap draw, see isOverlap
+        
+        LeaveRow row = new LeaveRow();
+        if (overlap) {
+            SplittableRandom previous = random(LEAVE_STREAM, index - 1);
+            previous.nextDouble();
+            row.employee = previous.nextInt(employeeCount);
+            long previousStart = leaveStart(previous, row.employee);
+            long previousEnd = previousStart + previous.nextInt(1, 11) - 1;
+            row.startEpochDay = previousStart + random.nextLong(previousEnd - previousStart + 1);
+            row.endEpochDay = row.startEpochDay + random.nextInt(1, 6) - 1;
+            random.nextInt(employeeCount); // Keep the remaining draws aligned with a regular leave
+        } else {
+            row.employee = random.nextInt(employeeCount);
+            row.startEpochDay = leaveStart(random, row.employee);
+            row.endEpochDay = row.startEpochDay + random.nextInt(1, 11) - 1;
+        }
+        
+        double statusDraw = random.nextDouble();
+        row.status = statusDraw < 0.7 ? PayrollConstants.LEAVE_STATUS_APPROVED :
+                     statusDraw < 0.9 ? PayrollConstants.LEAVE_STATUS_PENDING : PayrollConstants.LEAVE_STATUS_REJECTED;
+        row.type = LEAVE_TYPES[random.nextInt(LEAVE_TYPES.length)];
+        row.reason = LEAVE_REASONS[random.nextInt(LEAVE_REASONS.length)];
+        return row;
+    }
+
+    private void appendLeave(int index, StringBuilder line) {
+        LeaveRow row = leave(index);
+        line.append(employeeId(row.employee)).append(',')
+            .append(LocalDate.ofEpochDay(row.startEpochDay)).append(',')
+            .append(LocalDate.ofEpochDay(row.endEpochDay)).append(',')
+            .append(row.type).append(',')
+            .append(row.reason).append(',')
+            .append(row.status)
+            .append(LINE_SEPARATOR);
+    }
+
+    private boolean isOverlap(int index) {
+        return random(LEAVE_STREAM, index).nextDouble() < overlapRate;
+    }
+
+    /**
+     * Draw a leave start within the salary periods and after the employee joined
+     */
+    private long leaveStart(SplittableRandom random, int employee) {
+        long first = Math.max(periods[0].atDay(1).toEpochDay(), employee(employee).joiningEpochDay);
+        long last = periods[periods.length - 1].atEndOfMonth().toEpochDay() - 10;
+        return first + random.nextLong(Math.max(1, last - first + 1));
+    }
+
+    /**
+     * Per-period values shared by all salary writers
+     */
+    private class SalaryContext {
+        final int[] workingDays = new int[periods.length];
+        final String[] processDates = new String[periods.length];
+        final AllowanceRules rules = AllowanceRules.getDefault();
+        final TaxTable taxTable = TaxTable.getDefault();
+        final BusinessCalendar calendar = BusinessCalendar.getDefault();
+        final LeaveDayIndex approvedLeaveDays = new LeaveDayIndex();
+
+        SalaryContext() {
+            for (int p = 0; p < periods.length; p++) {
+                workingDays[p] = calendar.workingDaysIn(periods[p]);
+                processDates[p] = periods[p].atEndOfMonth().toString();
+            }
+            
+            // Regenerate the leaves rather than reading leaves.csv back
+            IntStream.range(0, leaveCount).parallel().forEach(index -> {
+                LeaveRow row = leave(index);
+                if (row.status.equals(PayrollConstants.LEAVE_STATUS_APPROVED)) {
+                    approvedLeaveDays.add(employeeId(row.employee),
+                            LocalDate.ofEpochDay(row.startEpochDay), LocalDate.ofEpochDay(row.endEpochDay));
+                }
+            });
+        }
+    }
+
+    /**
+     * Append the monthly salaries of one employee from the month they joined
+     */
+    private void appendSalaries(int index, StringBuilder lines, SalaryContext context) {
+        EmployeeRow row = employee(index);
+        YearMonth joined = YearMonth.from(LocalDate.ofEpochDay(row.joiningEpochDay));
+        String type = row.manager ? PayrollConstants.EMPLOYEE_TYPE_MANAGER : PayrollConstants.EMPLOYEE_TYPE_DEVELOPER;
+        double fullGross = context.rules.grossSalary(type, row.basicSalary, row.experienceYears, row.teamSize, row.managementLevel);
+        
+        for (int p = 0; p < periods.length; p++) {
+            if (periods[p].isBefore(joined)) {
+                continue;
+            }
+            int leaveDays = context.approvedLeaveDays.countWorkingDays(row.id, periods[p], context.calendar);
+            
+            long grossCents = Math.round((fullGross - row.basicSalary / context.workingDays[p] * leaveDays) * 100);
+            long taxCents = Math.round(context.taxTable.taxFor(grossCents / 100.0) * 100);
+            
+            lines.append(row.id).append(',');
+            appendAmount(lines, row.basicSalary).append(',');
+            appendCents(lines, grossCents).append(',');
+            appendCents(lines, taxCents).append(',');
+            appendCents(lines, grossCents - taxCents).append(',')
+                 .append(periods[p].getMonthValue()).append(',')
+                 .append(periods[p].getYear()).append(',')
+                 .append(leaveDays).append(',')
+                 .append(context.processDates[p])
+                 .append(LINE_SEPARATOR);
+        }
+    }
+
+    private String employeeId(int index) {
+        String number = String.valueOf(index + 1);
+        StringBuilder id = new StringBuilder(idWidth + 1).append('E');
+        for (int i = number.length(); i < idWidth; i++) {
+            id.append('0');
+        }
+        return id.append(number).toString();
+    }
+
+    /**
+     * Random source of one row, independent of which thread generates it
+     */
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(seed * 0xBF58476D1CE4E5B9L + stream + index * 0x94D049BB133111EBL);
+    }
+
+    private static StringBuilder appendAmount(StringBuilder line, double amount) {
+        return appendCents(line, Math.round(amount * 100));
+    }
+
+    private static StringBuilder appendCents(StringBuilder line, long cents) {
+        if (cents < 0) {
+            line.append('-');
+            cents = -cents;
+        }
+        line.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            line.append('0');
+        }
+        return line.append(fraction);
+    }
+}
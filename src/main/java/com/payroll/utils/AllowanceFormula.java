@@ -0,0 +1,320 @@
+package com.payroll.utils;
+
+/**
+ * Arithmetic allowance formula compiled once into a tree of evaluator nodes.
+ * Formulas may use numbers, + - * /, parentheses and the variables
+ * basic, experienceYears, teamSize and managementLevel. Evaluation walks the
+ * precompiled tree without parsing, reflection or allocation.
+ */
+public abstract class AllowanceFormula {
+    public static final String VAR_BASIC = "basic";
+    public static final String VAR_EXPERIENCE_YEARS = "experienceYears";
+    public static final String VAR_TEAM_SIZE = "teamSize";
+    public static final String VAR_MANAGEMENT_LEVEL = "managementLevel";
+
+    /**
+     * Evaluate the formula for one employee
+     *
+     * @param basic Basic salary
+     * @param experienceYears Years of experience (0 if not applicable)
+     * @param teamSize Team size (0 if not applicable)
+     * @param managementLevel Management level (0 if not applicable)
+     * @return The allowance amount
+     */
+    public abstract double evaluate(double basic, double experienceYears, double teamSize, double managementLevel);
+
+    /**
+     * Compile a formula
+     *
+     * @param expression The formula text, e.g. "0.02 * experienceYears * basic"
+     * @return The compiled formula
+     * @throws IllegalArgumentException if the formula is malformed
+     */
+    public static AllowanceFormula compile(String expression) {
+        Parser parser = new Parser(expression);
+        AllowanceFormula formula = parser.parseSum();
+        parser.skipSpaces();
+        if (parser.position < expression.length()) {
+            throw parser.error("unexpected '" + expression.charAt(parser.position) + "'");
+        }
+        return formula;
+    }
+
+    /**
+     * Create a formula adding two formulas
+     *
+     * @param left First formula
+     * @param right Second formula
+     * @return The sum formula
+     */
+    public static AllowanceFormula sum(AllowanceFormula left, AllowanceFormula right) {
+        return binary('+', left, right);
+    }
+
+    /**
+     * Create a formula multiplying two formulas
+     *
+     * @param left First formula
+     * @param right Second formula
+     * @return The product formula
+     */
+    public static AllowanceFormula product(AllowanceFormula left, AllowanceFormula right) {
+        return binary('*', left, right);
+    }
+
+    /**
+     * Create a formula reading one variable
+     *
+     * @param name The variable name, e.g. VAR_BASIC
+     * @return The variable formula
+     * @throws IllegalArgumentException if the variable is unknown
+     */
+    public static AllowanceFormula variable(String name) {
+        switch (name) {
+            case VAR_BASIC:
+                return new Basic();
+            case VAR_EXPERIENCE_YEARS:
+                return new ExperienceYears();
+            case VAR_TEAM_SIZE:
+                return new TeamSize();
+            case VAR_MANAGEMENT_LEVEL:
+                return new ManagementLevel();
+            default:
+                throw new IllegalArgumentException("unknown variable '" + name + "'");
+        }
+    }
+
+    /**
+     * Create a constant formula
+     *
+     * @param value The constant
+     * @return The constant formula
+     */
+    public static AllowanceFormula constant(double value) {
+        return new Constant(value);
+    }
+
+    private static AllowanceFormula binary(char operator, AllowanceFormula left, AllowanceFormula right) {
+        AllowanceFormula node;
+        switch (operator) {
+            case '+':
+                node = new Add(left, right);
+                break;
+            case '-':
+                node = new Subtract(left, right);
+                break;
+            case '*':
+                node = new Multiply(left, right);
+                break;
+            default:
+                node = new Divide(left, right);
+                break;
+        }
+        // Fold constant sub-expressions at compile time
+        if (left instanceof Constant && right instanceof Constant) {
+            return new Constant(node.evaluate(0, 0, 0, 0));
+        }
+        return node;
+    }
+
+    /**
+     * Recursive descent parser producing evaluator nodes
+     */
+    private static class Parser {
+        private final String text;
+        private int position;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private AllowanceFormula parseSum() {
+            AllowanceFormula result = parseProduct();
+            while (true) {
+                char operator = peek();
+                if (operator != '+' && operator != '-') {
+                    return result;
+                }
+                position++;
+                result = binary(operator, result, parseProduct());
+            }
+        }
+
+        private AllowanceFormula parseProduct() {
+            AllowanceFormula result = parseFactor();
+            while (true) {
+                char operator = peek();
+                if (operator != '*' && operator != '/') {
+                    return result;
+                }
+                position++;
+                result = binary(operator, result, parseFactor());
+            }
+        }
+
+        private AllowanceFormula parseFactor() {
+            char c = peek();
+            if (c == '-') {
+                position++;
+                return binary('-', new Constant(0), parseFactor());
+            }
+            if (c == '(') {
+                position++;
+                AllowanceFormula inner = parseSum();
+                if (peek() != ')') {
+                    throw error("missing ')'");
+                }
+                position++;
+                return inner;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                int start = position;
+                while (position < text.length() &&
+                       (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                    position++;
+                }
+                try {
+                    return new Constant(Double.parseDouble(text.substring(start, position)));
+                } catch (NumberFormatException e) {
+                    throw error("invalid number '" + text.substring(start, position) + "'");
+                }
+            }
+            if (Character.isLetter(c)) {
+                int start = position;
+                while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+                    position++;
+                }
+                return variable(text.substring(start, position));
+            }
+            throw error(c == 0 ? "unexpected end of formula" : "unexpected '" + c + "'");
+        }
+
+        private AllowanceFormula variable(String name) {
+            try {
+                return AllowanceFormula.variable(name);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        private char peek() {
+            skipSpaces();
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid formula '" + text + "' at position " + position + ": " + message);
+        }
+    }
+
+    private static final class Constant extends AllowanceFormula {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return value;
+        }
+    }
+
+    private static final class Basic extends AllowanceFormula {
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return basic;
+        }
+    }
+
+    private static final class ExperienceYears extends AllowanceFormula {
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return experienceYears;
+        }
+    }
+
+    private static final class TeamSize extends AllowanceFormula {
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return teamSize;
+        }
+    }
+
+    private static final class ManagementLevel extends AllowanceFormula {
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return managementLevel;
+        }
+    }
+
+    private static final class Add extends AllowanceFormula {
+        private final AllowanceFormula left;
+        private final AllowanceFormula right;
+
+        private Add(AllowanceFormula left, AllowanceFormula right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return left.evaluate(basic, experienceYears, teamSize, managementLevel) +
+                   right.evaluate(basic, experienceYears, teamSize, managementLevel);
+        }
+    }
+
+    private static final class Subtract extends AllowanceFormula {
+        private final AllowanceFormula left;
+        private final AllowanceFormula right;
+
+        private Subtract(AllowanceFormula left, AllowanceFormula right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return left.evaluate(basic, experienceYears, teamSize, managementLevel) -
+                   right.evaluate(basic, experienceYears, teamSize, managementLevel);
+        }
+    }
+
+    private static final class Multiply extends AllowanceFormula {
+        private final AllowanceFormula left;
+        private final AllowanceFormula right;
+
+        private Multiply(AllowanceFormula left, AllowanceFormula right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return left.evaluate(basic, experienceYears, teamSize, managementLevel) *
+                   right.evaluate(basic, experienceYears, teamSize, managementLevel);
+        }
+    }
+
+    private static final class Divide extends AllowanceFormula {
+        private final AllowanceFormula left;
+        private final AllowanceFormula right;
+
+        private Divide(AllowanceFormula left, AllowanceFormula right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double basic, double experienceYears, double teamSize, double managementLevel) {
+            return left.evaluate(basic, experienceYears, teamSize, managementLevel) /
+                   right.evaluate(basic, experienceYears, teamSize, managementLevel);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.payroll.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Allowance rules per employee type. Every allowance configured for a type is
+ * compiled once and summed into a single evaluator, so gross salary costs one
+ * map lookup and one walk of a precompiled formula.
+ */
+public class AllowanceRules {
+    private static volatile AllowanceRules defaultRules = builtIn();
+
+    private final Map<String, AllowanceFormula> formulasByType;
+
+    /**
+     * Constructor for AllowanceRules
+     *
+     * @param formulasByType Total allowance formula of each employee type
+     */
+    public AllowanceRules(Map<String, AllowanceFormula> formulasByType) {
+        this.formulasByType = Collections.unmodifiableMap(new HashMap<>(formulasByType));
+    }
+
+    /**
+     * Build the rules from the allowance constants in PayrollConstants
+     *
+     * @return The built-in rules
+     */
+    public static AllowanceRules builtIn() {
+        Map<String, AllowanceFormula> formulas = new HashMap<>();
+        // Built as formula nodes, so the constants never round-trip through formula text
+        AllowanceFormula basic = AllowanceFormula.variable(AllowanceFormula.VAR_BASIC);
+        formulas.put(PayrollConstants.EMPLOYEE_TYPE_DEVELOPER, AllowanceFormula.sum(
+                AllowanceFormula.product(AllowanceFormula.constant(PayrollConstants.TECH_ALLOWANCE), basic),
+                AllowanceFormula.product(AllowanceFormula.product(
+                        AllowanceFormula.constant(PayrollConstants.EXPERIENCE_BONUS),
+                        AllowanceFormula.variable(AllowanceFormula.VAR_EXPERIENCE_YEARS)), basic)));
+        formulas.put(PayrollConstants.EMPLOYEE_TYPE_MANAGER, AllowanceFormula.sum(
+                AllowanceFormula.product(AllowanceFormula.product(
+                        AllowanceFormula.constant(PayrollConstants.MANAGEMENT_ALLOWANCE),
+                        AllowanceFormula.variable(AllowanceFormula.VAR_MANAGEMENT_LEVEL)), basic),
+                AllowanceFormula.product(AllowanceFormula.product(
+                        AllowanceFormula.constant(PayrollConstants.TEAM_SIZE_ALLOWANCE),
+                        AllowanceFormula.variable(AllowanceFormula.VAR_TEAM_SIZE)), basic)));
+        return new AllowanceRules(formulas);
+    }
+
+    /**
+     * Create a copy of these rules with the allowance formula of one employee type replaced
+     *
+     * @param employeeType The employee type
+     * @param formula Its new total allowance formula
+     * @return The new rules
+     */
+    public AllowanceRules withFormula(String employeeType, AllowanceFormula formula) {
+        Map<String, AllowanceFormula> formulas = new HashMap<>(formulasByType);
+        formulas.put(employeeType, formula);
+        return new AllowanceRules(formulas);
+    }
+
+    /**
+     * Get the rules used for employee salary calculations
+     *
+     * @return The default allowance rules
+     */
+    public static AllowanceRules getDefault() {
+        return defaultRules;
+    }
+
+    /**
+     * Replace the rules used for employee salary calculations
+     *
+     * @param rules The new default allowance rules
+     */
+    public static void setDefault(AllowanceRules rules) {
+        defaultRules = rules;
+    }
+
+    /**
+     * Calculate the total allowance of an employee
+     *
+     * @param employeeType The employee type
+     * @param basic Basic salary
+     * @param experienceYears Years of experience (0 if not applicable)
+     * @param teamSize Team size (0 if not applicable)
+     * @param managementLevel Management level (0 if not applicable)
+     * @return Total allowance (0 if the type has no rules)
+     */
+    public double allowanceFor(String employeeType, double basic, int experienceYears, int teamSize, int managementLevel) {
+        AllowanceFormula formula = formulasByType.get(employeeType);
+        return formula == null ? 0 : formula.evaluate(basic, experienceYears, teamSize, managementLevel);
+    }
+
+    /**
+     * Calculate gross salary as basic salary plus allowances
+     *
+     * @param employeeType The employee type
+     * @param basic Basic salary
+     * @param experienceYears Years of experience (0 if not applicable)
+     * @param teamSize Team size (0 if not applicable)
+     * @param managementLevel Management level (0 if not applicable)
+     * @return Gross salary
+     */
+    public double grossSalary(String employeeType, double basic, int experienceYears, int teamSize, int managementLevel) {
+        return basic + allowanceFor(employeeType, basic, experienceYears, teamSize, managementLevel);
+    }
+
+    /**
+     * Get the total allowance formula of an employee type
+     *
+     * @param employeeType The employee type
+     * @return The formula, or null if the type has no rules
+     */
+    public AllowanceFormula getFormula(String employeeType) {
+        return formulasByType.get(employeeType);
+    }
+}
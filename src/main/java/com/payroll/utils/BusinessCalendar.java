@@ -0,0 +1,151 @@
+package com.payroll.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Working-day calendar of one region.
+ * Each month is cached as a bitset with bit (day - 1) set for every working
+ * day, so counting the working days of any day range in the month is one
+ * mask and one popcount.
+ */
+public class BusinessCalendar {
+    private static volatile BusinessCalendar defaultCalendar =
+            new BusinessCalendar(PayrollConstants.DEFAULT_JURISDICTION, new HashSet<>());
+
+    private final String region;
+    private final Set<LocalDate> holidays;
+    private final Set<DayOfWeek> weekendDays;
+    private final ConcurrentHashMap<YearMonth, Integer> workingDayMasks; // Lazily built per month
+
+    /**
+     * Constructor for BusinessCalendar with a Saturday and Sunday weekend
+     *
+     * @param region Name of the region
+     * @param holidays Public holidays of the region
+     */
+    public BusinessCalendar(String region, Collection<LocalDate> holidays) {
+        this(region, holidays, EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+    }
+
+    /**
+     * Constructor for BusinessCalendar
+     *
+     * @param region Name of the region
+     * @param holidays Public holidays of the region
+     * @param weekendDays Days of the week that are never worked
+     */
+    public BusinessCalendar(String region, Collection<LocalDate> holidays, Set<DayOfWeek> weekendDays) {
+        this.region = region;
+        this.holidays = new HashSet<>(holidays);
+        this.weekendDays = EnumSet.copyOf(weekendDays);
+        this.workingDayMasks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the calendar used for payroll calculations
+     *
+     * @return The default calendar
+     */
+    public static BusinessCalendar getDefault() {
+        return defaultCalendar;
+    }
+
+    /**
+     * Replace the calendar used for payroll calculations
+     *
+     * @param calendar The new default calendar
+     */
+    public static void setDefault(BusinessCalendar calendar) {
+        defaultCalendar = calendar;
+    }
+
+    /**
+     * Get the working days of a month as a bitset
+     *
+     * @param month The month
+     * @return Bitset with bit (day - 1) set for each working day
+     */
+    public int workingDayMask(YearMonth month) {
+        Integer mask = workingDayMasks.get(month);
+        if (mask == null) {
+            mask = workingDayMasks.computeIfAbsent(month, this::buildMask);
+        }
+        return mask;
+    }
+
+    /**
+     * Count the working days of a month
+     *
+     * @param month The month
+     * @return Number of working days
+     */
+    public int workingDaysIn(YearMonth month) {
+        return Integer.bitCount(workingDayMask(month));
+    }
+
+    /**
+     * Count the working days within a day range of a month
+     *
+     * @param month The month
+     * @param fromDay First day of the range (1-based, inclusive)
+     * @param toDay Last day of the range (inclusive)
+     * @return Number of working days in the range (0 if the range is empty)
+     */
+    public int workingDaysBetween(YearMonth month, int fromDay, int toDay) {
+        if (fromDay > toDay) {
+            return 0;
+        }
+        return Integer.bitCount(workingDayMask(month) & dayRangeMask(fromDay, toDay));
+    }
+
+    /**
+     * Check if a date is a working day
+     *
+     * @param date The date
+     * @return true if the date is neither a weekend day nor a holiday
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        return (workingDayMask(YearMonth.from(date)) & (1 << (date.getDayOfMonth() - 1))) != 0;
+    }
+
+    /**
+     * Build a bitset with bits (fromDay - 1) to (toDay - 1) set
+     *
+     * @param fromDay First day (1-based, inclusive)
+     * @param toDay Last day (inclusive)
+     * @return The day range mask
+     */
+    public static int dayRangeMask(int fromDay, int toDay) {
+        return (int) (((1L << (toDay - fromDay + 1)) - 1) << (fromDay - 1));
+    }
+
+    private int buildMask(YearMonth month) {
+        int mask = 0;
+        DayOfWeek dayOfWeek = month.atDay(1).getDayOfWeek();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            if (!weekendDays.contains(dayOfWeek) && !holidays.contains(month.atDay(day))) {
+                mask |= 1 << (day - 1);
+            }
+            dayOfWeek = dayOfWeek.plus(1);
+        }
+        return mask;
+    }
+
+    /**
+     * Getters
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    public int getHolidayCount() {
+        return holidays.size();
+    }
+}
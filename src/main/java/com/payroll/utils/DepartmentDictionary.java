@@ -0,0 +1,77 @@
+package com.payroll.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary assigning each distinct department name a small integer code.
+ * Records store the code instead of their own copy of the name, and every
+ * lookup of a code returns the same shared String instance.
+ */
+public final class DepartmentDictionary {
+    public static final int NO_DEPARTMENT = -1;
+
+    private static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[0];
+
+    private DepartmentDictionary() {
+    }
+
+    /**
+     * Get the code of a department, assigning the next code on first use
+     * 
+     * @param department The department name
+     * @return The department code, or NO_DEPARTMENT for null
+     */
+    public static int codeOf(String department) {
+        if (department == null) {
+            return NO_DEPARTMENT;
+        }
+        Integer code = codes.get(department);
+        if (code != null) {
+            return code;
+        }
+        synchronized (DepartmentDictionary.class) {
+            code = codes.get(department);
+            if (code == null) {
+                // Publish the name before the code so any reader of the code can resolve it
+                String[] grown = Arrays.copyOf(names, names.length + 1);
+                grown[grown.length - 1] = department;
+                names = grown;
+                code = grown.length - 1;
+                codes.put(department, code);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * Get the department name of a code
+     * 
+     * @param code The department code
+     * @return The shared department name, or null for NO_DEPARTMENT
+     */
+    public static String nameOf(int code) {
+        return code == NO_DEPARTMENT ? null : names[code];
+    }
+
+    /**
+     * Get the shared instance of a department name
+     * 
+     * @param department The department name
+     * @return The equal name held by the dictionary
+     */
+    public static String intern(String department) {
+        return nameOf(codeOf(department));
+    }
+
+    /**
+     * Get the number of distinct departments seen
+     * 
+     * @return Number of department codes assigned
+     */
+    public static int size() {
+        return names.length;
+    }
+}
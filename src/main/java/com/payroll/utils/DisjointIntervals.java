@@ -0,0 +1,150 @@
+package com.payroll.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of non-overlapping closed [start, end] int ranges, each with
+ * an int value, kept in parallel arrays sorted by start. Because the ranges
+ * are disjoint their ends are sorted too, so the first range that can
+ * overlap a query is found by binary search on the ends.
+ *
+ * Changes return a new set and leave this one untouched, so a set can be
+ * read without locking while a replacement is being built.
+ */
+public class DisjointIntervals {
+    private static final DisjointIntervals EMPTY = new DisjointIntervals(new int[0], new int[0], new int[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] values;
+
+    private DisjointIntervals(int[] starts, int[] ends, int[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+    }
+
+    /**
+     * Get the empty set
+     *
+     * @return A set without ranges
+     */
+    public static DisjointIntervals empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Create a set with one more range
+     *
+     * @param start Inclusive start of the range
+     * @param end Inclusive end of the range
+     * @param value Value attached to the range
+     * @return The new set
+     * @throws IllegalArgumentException if the range is inverted or overlaps a range of this set
+     */
+    public DisjointIntervals with(int start, int end, int value) {
+        if (end < start) {
+            throw new IllegalArgumentException("Interval end " + end + " is before start " + start);
+        }
+        int position = firstEndingAtOrAfter(start);
+        if (position < ends.length && starts[position] <= end) {
+            throw new IllegalArgumentException("Interval " + start + ".." + end + " overlaps an existing interval");
+        }
+
+        return new DisjointIntervals(insert(starts, position, start), insert(ends, position, end),
+                insert(values, position, value));
+    }
+
+    /**
+     * Create a set without the range holding a value
+     *
+     * @param start Inclusive start of the range
+     * @param value Value attached to the range
+     * @return The new set, or this set if no such range exists
+     */
+    public DisjointIntervals without(int start, int value) {
+        int position = Arrays.binarySearch(starts, start);
+        if (position < 0 || values[position] != value) {
+            return this;
+        }
+
+        return new DisjointIntervals(remove(starts, position), remove(ends, position), remove(values, position));
+    }
+
+    /**
+     * Find a range overlapping the given range
+     *
+     * @param start Inclusive start of the range
+     * @param end Inclusive end of the range
+     * @return Value of an overlapping range, or -1 if there is none
+     */
+    public int findAnyOverlapping(long start, long end) {
+        int position = firstEndingAtOrAfter(start);
+        return position < ends.length && starts[position] <= end ? values[position] : -1;
+    }
+
+    /**
+     * Visit the values of all ranges overlapping the given range, in order of start
+     *
+     * @param start Inclusive start of the range
+     * @param end Inclusive end of the range
+     * @param action Receives each value
+     */
+    public void forEachOverlapping(long start, long end, IntConsumer action) {
+        for (int position = firstEndingAtOrAfter(start); position < ends.length && starts[position] <= end; position++) {
+            action.accept(values[position]);
+        }
+    }
+
+    /**
+     * Visit the values of all ranges, in order of start
+     *
+     * @param action Receives each value
+     */
+    public void forEach(IntConsumer action) {
+        for (int value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    private int firstEndingAtOrAfter(long day) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int[] insert(int[] array, int position, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        return result;
+    }
+
+    private static int[] remove(int[] array, int position) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, position);
+        System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+        return result;
+    }
+}
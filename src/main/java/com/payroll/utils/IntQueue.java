@@ -0,0 +1,106 @@
+package com.payroll.utils;
+
+/**
+ * First-in, first-out queue of int values in a growable ring buffer,
+ * so queued values are not boxed.
+ */
+public class IntQueue {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Constructor for IntQueue
+     */
+    public IntQueue() {
+        this.elements = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add a value at the tail
+     *
+     * @param value The value
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            int[] grown = new int[elements.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = get(i);
+            }
+            elements = grown;
+            head = 0;
+        }
+        elements[(head + size) % elements.length] = value;
+        size++;
+    }
+
+    /**
+     * Remove the value at the head
+     *
+     * @return The value, or -1 if the queue is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        int value = elements[head];
+        head = (head + 1) % elements.length;
+        size--;
+        return value;
+    }
+
+    /**
+     * Remove the first occurrence of a value, keeping the order of the others
+     *
+     * @param value The value
+     * @return true if the value was found
+     */
+    public boolean remove(int value) {
+        for (int i = 0; i < size; i++) {
+            if (get(i) == value) {
+                for (int j = i; j < size - 1; j++) {
+                    elements[(head + j) % elements.length] = get(j + 1);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a value by position from the head
+     *
+     * @param position Position, 0 for the head
+     * @return The value
+     */
+    public int get(int position) {
+        return elements[(head + position) % elements.length];
+    }
+
+    /**
+     * Copy the values in order from the head
+     *
+     * @return The values
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Getters
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.payroll.utils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-employee, per-year bitmaps of leave days.
+ * Each year is six longs with bit (dayOfYear - 1) set for every day on leave,
+ * so overlapping or duplicate leaves mark a day only once, and the leave days
+ * of a month are one shift, one mask and one popcount.
+ * An employee's bitmaps are never modified once published: writers build a
+ * new copy and swap it in, so reads take no lock.
+ */
+public class LeaveDayIndex {
+    private static final int WORDS_PER_YEAR = 6; // 384 bits, enough for 366 days
+
+    private final Map<String, Map<Integer, long[]>> bitmapsByEmployee;
+
+    /**
+     * Constructor for LeaveDayIndex
+     */
+    public LeaveDayIndex() {
+        this.bitmapsByEmployee = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Mark every day of a date range as leave
+     *
+     * @param employeeId The employee ID
+     * @param startDate First day of the leave
+     * @param endDate Last day of the leave (inclusive)
+     */
+    public void add(String employeeId, LocalDate startDate, LocalDate endDate) {
+        bitmapsByEmployee.compute(employeeId, (id, current) -> {
+            Map<Integer, long[]> years = current == null ? new HashMap<>() : new HashMap<>(current);
+            for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+                int from = year == startDate.getYear() ? startDate.getDayOfYear() : 1;
+                int to = year == endDate.getYear() ? endDate.getDayOfYear() : LocalDate.of(year, 12, 31).getDayOfYear();
+                long[] words = years.get(year);
+                words = words == null ? new long[WORDS_PER_YEAR] : words.clone();
+                setBits(words, from - 1, to - 1);
+                years.put(year, words);
+            }
+            return years;
+        });
+    }
+
+    /**
+     * Remove all leave days of an employee
+     *
+     * @param employeeId The employee ID
+     */
+    public void clear(String employeeId) {
+        bitmapsByEmployee.remove(employeeId);
+    }
+
+    /**
+     * Replace the leave days of an employee with those recorded in another
+     * index, in one step, so readers never see the employee half rebuilt
+     *
+     * @param employeeId The employee ID
+     * @param source Index holding the employee's new leave days
+     */
+    public void replace(String employeeId, LeaveDayIndex source) {
+        Map<Integer, long[]> years = source.bitmapsByEmployee.get(employeeId);
+        if (years == null) {
+            bitmapsByEmployee.remove(employeeId);
+        } else {
+            bitmapsByEmployee.put(employeeId, years);
+        }
+    }
+
+    /**
+     * Get the leave days of an employee in a month as a bitset
+     *
+     * @param employeeId The employee ID
+     * @param month The month
+     * @return Bitset with bit (day - 1) set for each day on leave
+     */
+    public int getMonthBits(String employeeId, YearMonth month) {
+        Map<Integer, long[]> years = bitmapsByEmployee.get(employeeId);
+        long[] words = years == null ? null : years.get(month.getYear());
+        if (words == null) {
+            return 0;
+        }
+        
+        int firstBit = month.getMonth().firstDayOfYear(month.isLeapYear()) - 1;
+        int word = firstBit >>> 6;
+        int offset = firstBit & 63;
+        long bits = words[word] >>> offset;
+        if (offset + month.lengthOfMonth() > 64) {
+            bits |= words[word + 1] << (64 - offset);
+        }
+        return (int) (bits & ((1L << month.lengthOfMonth()) - 1));
+    }
+
+    /**
+     * Count the leave days of an employee in a month
+     *
+     * @param employeeId The employee ID
+     * @param month The month
+     * @return Number of distinct days on leave
+     */
+    public int countDays(String employeeId, YearMonth month) {
+        return Integer.bitCount(getMonthBits(employeeId, month));
+    }
+
+    /**
+     * Count the leave days of an employee in a month that are working days
+     *
+     * @param employeeId The employee ID
+     * @param month The month
+     * @param calendar Calendar defining the working days
+     * @return Number of distinct working days on leave
+     */
+    public int countWorkingDays(String employeeId, YearMonth month, BusinessCalendar calendar) {
+        return Integer.bitCount(getMonthBits(employeeId, month) & calendar.workingDayMask(month));
+    }
+
+    private static void setBits(long[] words, int fromBit, int toBit) {
+        int fromWord = fromBit >>> 6;
+        int toWord = toBit >>> 6;
+        for (int w = fromWord; w <= toWord; w++) {
+            long mask = -1L;
+            if (w == fromWord) {
+                mask &= -1L << (fromBit & 63);
+            }
+            if (w == toWord) {
+                mask &= -1L >>> (63 - (toBit & 63));
+            }
+            words[w] |= mask;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.payroll.utils;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non-negative long keys to non-negative int values, stored in
+ * two primitive arrays with open addressing and linear probing, so an entry
+ * costs 12 bytes of array space instead of a boxed entry object.
+ * Entries cannot be removed.
+ */
+public class LongIntMap {
+    private static final long EMPTY = -1L;
+    private static final int INITIAL_CAPACITY = 64; // Power of two
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Constructor for LongIntMap
+     */
+    public LongIntMap() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key The key
+     * @return The value, or -1 if the key is not in the map
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Set the value of a key
+     *
+     * @param key The key (not negative)
+     * @param value The value (not negative)
+     */
+    public void put(long key, int value) {
+        if (key < 0 || value < 0) {
+            throw new IllegalArgumentException("Negative key " + key + " or value " + value);
+        }
+        if (size * 2 >= keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Getters
+     */
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L; // Spread sequential keys over the table
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
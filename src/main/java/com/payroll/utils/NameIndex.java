@@ -0,0 +1,261 @@
+package com.payroll.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive name index supporting prefix and typo-tolerant lookup.
+ * Names are split into words; a sorted term map answers prefix queries with
+ * a range scan, and a bigram index over the distinct words narrows fuzzy
+ * queries to a few candidates before checking their edit distance.
+ */
+public class NameIndex {
+    private final TreeMap<String, Set<String>> idsByTerm; // Words and full names to IDs
+    private final Map<String, Set<String>> wordsByBigram; // Bigrams to distinct words
+    private final Map<String, String> namesById; // Normalized name each ID is indexed under
+
+    /**
+     * Constructor for NameIndex
+     */
+    public NameIndex() {
+        this.idsByTerm = new TreeMap<>();
+        this.wordsByBigram = new HashMap<>();
+        this.namesById = new HashMap<>();
+    }
+
+    /**
+     * Index a name, replacing any name previously indexed for the ID
+     *
+     * @param id The ID the name belongs to
+     * @param name The name
+     */
+    public void add(String id, String name) {
+        remove(id);
+
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        namesById.put(id, normalized);
+
+        addTerm(normalized, id);
+        for (String word : words(normalized)) {
+            addTerm(word, id);
+            for (String bigram : bigrams(word)) {
+                wordsByBigram.computeIfAbsent(bigram, b -> new HashSet<>()).add(word);
+            }
+        }
+    }
+
+    /**
+     * Remove the name indexed for an ID
+     *
+     * @param id The ID
+     */
+    public void remove(String id) {
+        String normalized = namesById.remove(id);
+        if (normalized == null) {
+            return;
+        }
+
+        removeTerm(normalized, id);
+        for (String word : words(normalized)) {
+            removeTerm(word, id);
+            if (!idsByTerm.containsKey(word)) {
+                for (String bigram : bigrams(word)) {
+                    Set<String> words = wordsByBigram.get(bigram);
+                    if (words != null) {
+                        words.remove(word);
+                        if (words.isEmpty()) {
+                            wordsByBigram.remove(bigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Find IDs whose full name or any word of it starts with a prefix
+     *
+     * @param prefix The prefix (case-insensitive)
+     * @param limit Maximum number of IDs to return
+     * @return Matching IDs, ordered by the matching term
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        Set<String> result = new LinkedHashSet<>();
+        if (normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        for (Set<String> ids : idsByTerm.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            for (String id : ids) {
+                result.add(id);
+                if (result.size() >= limit) {
+                    return new ArrayList<>(result);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Find IDs whose name contains, for every word of the query, a word within
+     * a small edit distance of it (one edit for words up to 4 letters, two beyond)
+     *
+     * @param query The query (case-insensitive)
+     * @param limit Maximum number of IDs to return
+     * @return Matching IDs
+     */
+    public List<String> findSimilar(String query, int limit) {
+        Set<String> result = null;
+        for (String queryWord : words(normalize(query))) {
+            Set<String> ids = new HashSet<>();
+            for (String word : similarWords(queryWord)) {
+                ids.addAll(idsByTerm.get(word));
+            }
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        if (result != null) {
+            for (String id : result) {
+                if (matches.size() >= limit) {
+                    break;
+                }
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Find indexed words within the allowed edit distance of a query word
+     *
+     * @param queryWord The normalized query word
+     * @return Similar indexed words
+     */
+    private List<String> similarWords(String queryWord) {
+        int maxEdits = queryWord.length() <= 4 ? 1 : 2;
+        Set<String> queryBigrams = bigrams(queryWord);
+
+        // Each edit (or transposition) breaks at most three bigrams, which bounds the overlap a match must have
+        int minShared = Math.max(1, queryBigrams.size() - 3 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String bigram : queryBigrams) {
+            Set<String> words = wordsByBigram.get(bigram);
+            if (words != null) {
+                for (String word : words) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<String> similar = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String word = entry.getKey();
+            if (entry.getValue() >= minShared &&
+                Math.abs(word.length() - queryWord.length()) <= maxEdits &&
+                editDistance(queryWord, word) <= maxEdits) {
+                similar.add(word);
+            }
+        }
+        return similar;
+    }
+
+    private void addTerm(String term, String id) {
+        idsByTerm.computeIfAbsent(term, t -> new HashSet<>()).add(id);
+    }
+
+    private void removeTerm(String term, String id) {
+        Set<String> ids = idsByTerm.get(term);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByTerm.remove(term);
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(name.length());
+        for (String word : words(name.toLowerCase(Locale.ROOT))) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(word);
+        }
+        return sb.toString();
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean separator = i == text.length() || Character.isWhitespace(text.charAt(i));
+            if (!separator && start < 0) {
+                start = i;
+            } else if (separator && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> bigrams(String word) {
+        String padded = "$" + word + "$";
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and
+     * transpositions of adjacent letters (optimal string alignment)
+     */
+    private static int editDistance(String a, String b) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,45 @@
+package com.payroll.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing
+ *
+ * @param <T> Type of the listed items
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructor for Page
+     *
+     * @param items Items on this page
+     * @param nextCursor Cursor to pass for the following page, or null if this is the last page
+     */
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Check if more items follow this page
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Getters
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -14,25 +14,49 @@ public class PayrollConstants {
     public static final String EMPLOYEES_FILE = DATA_DIR + "/data/employees.csv";
     public static final String LEAVES_FILE = DATA_DIR + "/data/leaves.csv";
     public static final String SALARIES_FILE = DATA_DIR + "/data/salaries.csv";
+    public static final String YTD_FILE = DATA_DIR + "/data/ytd_totals.csv";
+    public static final String TAX_BRACKETS_FILE = DATA_DIR + "/data/tax_brackets.csv";
+    public static final String ALLOWANCE_RULES_FILE = DATA_DIR + "/data/allowance_rules.csv";
+    public static final String HOLIDAYS_FILE = DATA_DIR + "/data/holidays.csv";
+    public static final String COMPENSATION_FILE = DATA_DIR + "/data/compensation.csv";
+    public static final String PAYROLL_RUNS_DIR = DATA_DIR + "/data/runs";
+    
+    // First line of the year-to-date totals file, followed by the salaries file stamp
+    public static final String YTD_HEADER = "#salaries,";
     
     // Employee types
     public static final String EMPLOYEE_TYPE_MANAGER = "Manager";
     public static final String EMPLOYEE_TYPE_DEVELOPER = "Developer";
     
+    // Department used for salaries whose employee no longer exists
+    public static final String UNKNOWN_DEPARTMENT = "Unknown";
+    
     // Leave types
     public static final String LEAVE_TYPE_SICK = "SICK";
     public static final String LEAVE_TYPE_CASUAL = "CASUAL";
     public static final String LEAVE_TYPE_ANNUAL = "ANNUAL";
     
+    // Payroll run status
+    public static final String RUN_STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String RUN_STATUS_COMPLETED = "COMPLETED";
+    
     // Leave status
     public static final String LEAVE_STATUS_PENDING = "PENDING";
     public static final String LEAVE_STATUS_APPROVED = "APPROVED";
     public static final String LEAVE_STATUS_REJECTED = "REJECTED";
+    public static final String LEAVE_STATUS_CANCELLED = "CANCELLED";
+    
+    // Tax brackets
+    public static final double TAX_THRESHOLD_LOW = 20000;  // Upper bound of the low bracket
+    public static final double TAX_THRESHOLD_MEDIUM = 50000;  // Upper bound of the medium bracket
+    
+    // Jurisdiction whose tax table and holiday calendar apply to employees
+    public static final String DEFAULT_JURISDICTION = "DEFAULT";
     
-    // Tax rates
-    public static final double TAX_RATE_LOW = 0.05;  // 5% for salary <= 20000
-    public static final double TAX_RATE_MEDIUM = 0.10;  // 10% for salary <= 50000
-    public static final double TAX_RATE_HIGH = 0.15;  // 15% for salary > 50000
+    // Marginal tax rates
+    public static final double TAX_RATE_LOW = 0.05;  // 5% on the first 20000
+    public static final double TAX_RATE_MEDIUM = 0.10;  // 10% on the part between 20000 and 50000
+    public static final double TAX_RATE_HIGH = 0.15;  // 15% on the part above 50000
     
     // Allowance rates
     public static final double TECH_ALLOWANCE = 0.15;  // 15% of basic salary for developers
@@ -42,6 +66,11 @@ public class PayrollConstants {
     
     // Default values
     public static final int DEFAULT_LEAVE_DAYS = 20;  // Default available leave days per year
+    public static final int UNDO_LOG_CAPACITY = 50;  // Leave applications that can be undone per session
+    public static final int NAME_SEARCH_LIMIT = 50;  // Maximum employees listed by a name search
+    public static final int PAGE_SIZE = 20;  // Rows shown per page in listing screens
+    public static final int RUN_PARTITION_SIZE = 1000;  // Employees per payroll run partition
+    public static final int RUN_CHECKPOINT_INTERVAL = 100;  // Employees committed between run checkpoints
     
     // Static initializer to print the file paths for debugging
     static {
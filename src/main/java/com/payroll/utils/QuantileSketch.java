@@ -0,0 +1,119 @@
+package com.payroll.utils;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimator with a fixed memory footprint.
+ * The first values are buffered so small populations get exact answers;
+ * past the buffer size values are folded into logarithmic buckets that
+ * bound the relative error of every quantile to RELATIVE_ACCURACY.
+ * Values below 1 (including zero and negatives) share a single bucket
+ * reported as 0.
+ */
+public class QuantileSketch {
+    public static final int EXACT_CAPACITY = 2048;
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKET_COUNT = (int) Math.ceil(Math.log(1e15) / LOG_GAMMA) + 2;
+
+    private final double[] exactValues;
+    private int[] buckets;
+    private long count;
+
+    /**
+     * Constructor for QuantileSketch
+     */
+    public QuantileSketch() {
+        this.exactValues = new double[EXACT_CAPACITY];
+    }
+
+    /**
+     * Add a value to the sketch
+     *
+     * @param value The value
+     */
+    public void add(double value) {
+        if (buckets == null) {
+            if (count < EXACT_CAPACITY) {
+                exactValues[(int) count++] = value;
+                return;
+            }
+            buckets = new int[BUCKET_COUNT];
+            for (double buffered : exactValues) {
+                buckets[bucketIndex(buffered)]++;
+            }
+        }
+        buckets[bucketIndex(value)]++;
+        count++;
+    }
+
+    /**
+     * Estimate a quantile
+     *
+     * @param quantile Quantile between 0 and 1 (e.g. 0.9 for P90)
+     * @return The estimated value, or NaN if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        if (buckets == null) {
+            double[] sorted = Arrays.copyOf(exactValues, (int) count);
+            Arrays.sort(sorted);
+            double rank = quantile * (sorted.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = (int) Math.ceil(rank);
+            return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+        }
+
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen > rank) {
+                return bucketValue(i);
+            }
+        }
+        return bucketValue(buckets.length - 1);
+    }
+
+    /**
+     * Check if quantiles are computed exactly from buffered values
+     *
+     * @return true while the sketch holds no more than EXACT_CAPACITY values
+     */
+    public boolean isExact() {
+        return buckets == null;
+    }
+
+    /**
+     * Get the number of values added
+     *
+     * @return Number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private static int bucketIndex(double value) {
+        if (!(value >= 1)) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA) + 1;
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    private static double bucketValue(int index) {
+        if (index == 0) {
+            return 0;
+        }
+        // Midpoint (in relative terms) of the bucket's (gamma^(i-2), gamma^(i-1)] range
+        return 2 * Math.pow(GAMMA, index - 1) / (GAMMA + 1);
+    }
+}
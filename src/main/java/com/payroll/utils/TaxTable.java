@@ -0,0 +1,137 @@
+package com.payroll.utils;
+
+import java.util.Arrays;
+
+/**
+ * Progressive tax table compiled into parallel arrays.
+ * Each bracket stores its lower bound, marginal rate and the tax already owed
+ * at that bound, so the tax on any amount is one binary search and one
+ * multiply-add with no allocation.
+ */
+public class TaxTable {
+    private static volatile TaxTable defaultTable = compile("DEFAULT",
+            new double[] {0, PayrollConstants.TAX_THRESHOLD_LOW, PayrollConstants.TAX_THRESHOLD_MEDIUM},
+            new double[] {PayrollConstants.TAX_RATE_LOW, PayrollConstants.TAX_RATE_MEDIUM, PayrollConstants.TAX_RATE_HIGH});
+
+    private final String jurisdiction;
+    private final double[] lowerBounds;
+    private final double[] rates;
+    private final double[] cumulativeTax;
+
+    private TaxTable(String jurisdiction, double[] lowerBounds, double[] rates, double[] cumulativeTax) {
+        this.jurisdiction = jurisdiction;
+        this.lowerBounds = lowerBounds;
+        this.rates = rates;
+        this.cumulativeTax = cumulativeTax;
+    }
+
+    /**
+     * Compile a bracket table
+     *
+     * @param jurisdiction Name of the jurisdiction
+     * @param lowerBounds Lower bound of each bracket, ascending, starting at 0
+     * @param rates Marginal rate of each bracket
+     * @return The compiled table
+     * @throws IllegalArgumentException if the brackets are malformed
+     */
+    public static TaxTable compile(String jurisdiction, double[] lowerBounds, double[] rates) {
+        if (lowerBounds.length == 0 || lowerBounds.length != rates.length) {
+            throw new IllegalArgumentException("Tax table " + jurisdiction + " needs one rate per bracket");
+        }
+        if (lowerBounds[0] != 0) {
+            throw new IllegalArgumentException("Tax table " + jurisdiction + " must start at 0");
+        }
+
+        double[] cumulativeTax = new double[lowerBounds.length];
+        for (int i = 1; i < lowerBounds.length; i++) {
+            if (lowerBounds[i] <= lowerBounds[i - 1]) {
+                throw new IllegalArgumentException("Tax table " + jurisdiction + " brackets must be ascending");
+            }
+            cumulativeTax[i] = cumulativeTax[i - 1] + (lowerBounds[i] - lowerBounds[i - 1]) * rates[i - 1];
+        }
+
+        return new TaxTable(jurisdiction, lowerBounds.clone(), rates.clone(), cumulativeTax);
+    }
+
+    /**
+     * Get the table used for employee tax calculations
+     *
+     * @return The default tax table
+     */
+    public static TaxTable getDefault() {
+        return defaultTable;
+    }
+
+    /**
+     * Replace the table used for employee tax calculations
+     *
+     * @param table The new default tax table
+     */
+    public static void setDefault(TaxTable table) {
+        defaultTable = table;
+    }
+
+    /**
+     * Calculate progressive tax on an amount
+     *
+     * @param amount The taxable amount
+     * @return Tax amount (0 for non-positive amounts)
+     */
+    public double taxFor(double amount) {
+        if (amount <= 0) {
+            return 0;
+        }
+        int bracket = bracketOf(amount);
+        return cumulativeTax[bracket] + (amount - lowerBounds[bracket]) * rates[bracket];
+    }
+
+    /**
+     * Calculate tax for many amounts at once
+     *
+     * @param amounts The taxable amounts
+     * @param taxes Array receiving the tax for each amount (at least as long as amounts)
+     */
+    public void taxFor(double[] amounts, double[] taxes) {
+        taxFor(amounts, taxes, amounts.length);
+    }
+
+    /**
+     * Calculate tax for the first amounts of an array, so the arrays can be
+     * reused across batches of different sizes
+     *
+     * @param amounts The taxable amounts
+     * @param taxes Array receiving the tax for each amount
+     * @param length Number of leading amounts to tax
+     */
+    public void taxFor(double[] amounts, double[] taxes, int length) {
+        for (int i = 0; i < length; i++) {
+            taxes[i] = taxFor(amounts[i]);
+        }
+    }
+
+    /**
+     * Find the bracket an amount falls into
+     *
+     * @param amount The taxable amount
+     * @return Index of the bracket, 0 for the lowest
+     */
+    public int bracketOf(double amount) {
+        int index = Arrays.binarySearch(lowerBounds, amount);
+        if (index >= 0) {
+            // An amount equal to a bound belongs to the bracket below it, as before
+            return index == 0 ? 0 : index - 1;
+        }
+        return -index - 2 < 0 ? 0 : -index - 2;
+    }
+
+    /**
+     * Getters
+     */
+    public String getJurisdiction() {
+        return jurisdiction;
+    }
+
+    public int getBracketCount() {
+        return lowerBounds.length;
+    }
+}